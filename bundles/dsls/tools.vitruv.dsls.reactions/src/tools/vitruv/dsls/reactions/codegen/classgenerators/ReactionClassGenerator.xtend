@@ -7,6 +7,7 @@ import org.eclipse.xtext.common.types.JvmOperation
 import static tools.vitruv.dsls.reactions.api.generator.ReactionsLanguageGeneratorConstants.*;
 import tools.vitruv.dsls.reactions.language.toplevelelements.PreconditionCodeBlock
 import tools.vitruv.extensions.dslsruntime.reactions.AbstractReactionRealization
+import tools.vitruv.extensions.dslsruntime.reactions.ReactionTrigger
 import tools.vitruv.framework.change.echange.EChange
 import static tools.vitruv.dsls.reactions.codegen.ReactionsLanguageConstants.*;
 import tools.vitruv.dsls.reactions.language.toplevelelements.Reaction
@@ -53,6 +54,7 @@ class ReactionClassGenerator extends ClassGenerator {
 	
 	override generateBody() {
 		if (changeSequenceRepresentation !== null) generateMethodExecuteReaction()
+		if (changeSequenceRepresentation?.numberOfChanges == 1) generateMethodGetTrigger()
 		
 		generatedClass => [
 			documentation = getCommentWithoutMarkers(reaction.documentation)
@@ -142,6 +144,7 @@ class ReactionClassGenerator extends ClassGenerator {
 					getLogger().trace("Passed complete precondition check of Reaction " + this.getClass().getName());
 				}
 								
+				this.initializeRoutinesFacadeExecutionState();
 				«userExecutionClassGenerator.qualifiedClassName» userExecution = new «userExecutionClassGenerator.qualifiedClassName»(this.executionState, this);
 				userExecution.«callRoutineMethod.simpleName»(«
 					FOR argument : accessibleElementList.generateArgumentsForAccesibleElements SEPARATOR ", " AFTER ", "»«argument»«ENDFOR»this.getRoutinesFacade());
@@ -151,6 +154,26 @@ class ReactionClassGenerator extends ClassGenerator {
 		];
 	}
 	
+	/**
+	 * Generates method: getTrigger
+	 * 
+	 * <p>Returns the {@link ReactionTrigger} describing the change type, affected element type and affected feature
+	 * the reaction matches, such that the reactions executor only calls the reaction for changes it may match.
+	 * Only generated for reactions triggered by a single change, because reactions matching a sequence of changes 
+	 * have to see every change to track the progress of their matching.
+	 */
+	protected def generateMethodGetTrigger() {
+		val change = changeSequenceRepresentation.atomicChanges.claimOne
+		return getOrGenerateMethod("getTrigger", typeRef(ReactionTrigger)) [
+			visibility = JvmVisibility.PUBLIC;
+			body = '''
+				return new «ReactionTrigger»(«change.changeType».class, «
+					IF change.hasAffectedElement»«change.affectedElementClass».class«ELSE»null«ENDIF», «
+					IF change.hasAffectedFeature»"«change.affectedFeature.name»"«ELSE»null«ENDIF»);
+			'''
+		];
+	}
+	
 	def Iterable<String> generateArgumentsForAccesibleElements(Iterable<AccessibleElement> elements) {
 		elements.map[name];
 	}
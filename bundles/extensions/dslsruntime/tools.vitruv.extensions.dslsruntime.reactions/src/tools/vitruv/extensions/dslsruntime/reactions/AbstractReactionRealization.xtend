@@ -6,10 +6,20 @@ import tools.vitruv.framework.change.echange.EChange
 import org.eclipse.xtend.lib.annotations.Accessors
 import tools.vitruv.framework.userinteraction.UserInteractor
 
+/**
+ * Base class of reactions. The executor calls {@link #applyEvent} for every change the reaction may react to,
+ * so the execution of a reaction that does not match the change should not allocate anything.
+ * <p>
+ * Subclasses implement {@link #executeReaction} and have to call {@link #initializeRoutinesFacadeExecutionState()}
+ * after the change matched and before calling any routine of the {@link #getRoutinesFacade() routines facade}.
+ * Otherwise, the routines are executed without the execution state of the current change propagation and
+ * without this reaction as their caller. Reactions generated by the Reactions language do so.
+ */
 abstract class AbstractReactionRealization extends CallHierarchyHaving implements IReactionRealization {
 	val AbstractRepairRoutinesFacade routinesFacade;
 	protected UserInteractor userInteractor;
 	protected ReactionExecutionState executionState;
+	boolean routinesFacadeExecutionStateInitialized = false;
 	
 	new(AbstractRepairRoutinesFacade routinesFacade) {
 		this.routinesFacade = routinesFacade;
@@ -24,20 +34,34 @@ abstract class AbstractReactionRealization extends CallHierarchyHaving implement
 		this.executionState = reactionExecutionState;
 		this.userInteractor = reactionExecutionState.userInteractor;
 
-		// set the reaction execution state and caller to use for all following routine calls:
-		// note: reactions are executed one after the other, therefore we don't need to capture/restore the facade's previous execution state here,
-		// resetting it after execution is sufficient
-		routinesFacade._getExecutionState().setExecutionState(executionState, this);
-
 		try {	
 			executeReaction(change);
 		} finally {
-			// reset the routines facade execution state:
-			routinesFacade._getExecutionState().reset();
+			// reset the routines facade execution state if it was set up by the matching reaction:
+			if (routinesFacadeExecutionStateInitialized) {
+				routinesFacade._getExecutionState().reset();
+				routinesFacadeExecutionStateInitialized = false;
+			}
 		}
 	}
 	
+	/**
+	 * Sets the reaction execution state and caller to use for all following routine calls. Has to be called
+	 * by the reaction after it matched the change and before it calls any routine, such that reactions that
+	 * do not match a change do not need to set up the routines facade.
+	 */
+	protected def void initializeRoutinesFacadeExecutionState() {
+		// note: reactions are executed one after the other, therefore we don't need to capture/restore the facade's previous execution state here,
+		// resetting it after execution is sufficient
+		routinesFacade._getExecutionState().setExecutionState(executionState, this);
+		routinesFacadeExecutionStateInitialized = true;
+	}
+	
 	protected def void executeReaction(EChange change);
+
+	override ReactionTrigger getTrigger() {
+		return null;
+	}
 	
 	
 	static abstract class ChangeMatcher<T extends EChange> {
@@ -7,18 +7,18 @@ import tools.vitruv.framework.change.echange.EChange
 import tools.vitruv.framework.correspondence.CorrespondenceModel
 import tools.vitruv.framework.domains.VitruvDomain
 import tools.vitruv.framework.propagation.ResourceAccess
-import java.util.List
 import tools.vitruv.framework.propagation.impl.AbstractChangePropagationSpecification
 
 abstract class AbstractReactionsExecutor extends AbstractChangePropagationSpecification {
 	static val LOGGER = Logger.getLogger(AbstractReactionsExecutor);
 
 	val RoutinesFacadesProvider routinesFacadesProvider;
-	List<IReactionRealization> reactions;
+	ReactionDispatchIndex reactions;
+	ReactionExecutionState executionState;
 
 	new(VitruvDomain sourceDomain, VitruvDomain targetDomain) {
 		super(sourceDomain, targetDomain);
-		this.reactions = newArrayList;
+		this.reactions = new ReactionDispatchIndex;
 		this.routinesFacadesProvider = this.createRoutinesFacadesProvider();
 		this.setup();
 	}
@@ -28,7 +28,7 @@ abstract class AbstractReactionsExecutor extends AbstractChangePropagationSpecif
 	}
 
 	protected def void addReaction(IReactionRealization reaction) {
-		this.reactions += reaction;
+		this.reactions.add(reaction);
 	}
 
 	override doesHandleChange(EChange change, CorrespondenceModel correspondenceModel) {
@@ -37,17 +37,40 @@ abstract class AbstractReactionsExecutor extends AbstractChangePropagationSpecif
 
 	override propagateChange(EChange change, CorrespondenceModel correspondenceModel,
 		ResourceAccess resourceAccess) {
-		LOGGER.trace("Call relevant reactions from " + sourceDomain.name + " to " + targetDomain.name);
-		for (reaction : reactions) {
-			LOGGER.trace("Calling reaction: " + reaction.class.simpleName + " with change: " + change);
-			val executionState = new ReactionExecutionState(userInteractor, correspondenceModel, resourceAccess, this);
+		if (LOGGER.isTraceEnabled) {
+			LOGGER.trace("Call relevant reactions from " + sourceDomain.name + " to " + targetDomain.name);
+		}
+		val candidateReactions = reactions.getCandidates(change)
+		if (candidateReactions.empty) {
+			return
+		}
+		val executionState = getExecutionState(correspondenceModel, resourceAccess)
+		for (reaction : candidateReactions) {
+			if (LOGGER.isTraceEnabled) {
+				LOGGER.trace("Calling reaction: " + reaction.class.simpleName + " with change: " + change);
+			}
 			reaction.applyEvent(change, executionState)
 		}
 	}
 
+	/**
+	 * Returns the execution state for the given correspondence model and resource access. Reactions do not modify
+	 * the immutable execution state, so it is shared by all reactions and reused as long as the correspondence model,
+	 * resource access and user interactor do not change.
+	 */
+	private def getExecutionState(CorrespondenceModel correspondenceModel, ResourceAccess resourceAccess) {
+		val currentState = executionState
+		if (currentState === null || currentState.correspondenceModel !== correspondenceModel ||
+			currentState.resourceAccess !== resourceAccess || currentState.userInteractor !== userInteractor) {
+			executionState = new ReactionExecutionState(userInteractor, correspondenceModel, resourceAccess, this);
+		}
+		return executionState
+	}
+
 	override setUserInteractor(UserInteractor userInteractor) {
 		super.setUserInteractor(userInteractor);
-		reactions = newArrayList;
+		reactions = new ReactionDispatchIndex;
+		executionState = null;
 		setup();
 	}
 
@@ -4,4 +4,10 @@ import tools.vitruv.framework.change.echange.EChange
 
 interface IReactionRealization {
 	def void applyEvent(EChange change, ReactionExecutionState executionState);
+
+	/**
+	 * Returns the trigger describing the changes this reaction may react to, or <code>null</code> if
+	 * the reaction has to be applied to every change.
+	 */
+	def ReactionTrigger getTrigger();
 }
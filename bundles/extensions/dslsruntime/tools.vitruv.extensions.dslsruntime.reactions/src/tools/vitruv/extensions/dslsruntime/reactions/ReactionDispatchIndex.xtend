@@ -0,0 +1,28 @@
+package tools.vitruv.extensions.dslsruntime.reactions
+
+import java.util.HashMap
+import java.util.List
+import java.util.Map
+import tools.vitruv.framework.change.echange.EChange
+
+/**
+ * Index of the reactions of an {@link AbstractReactionsExecutor}, which provides the reactions that may match a
+ * given change based on their {@link ReactionTrigger}s. Reactions without a trigger are candidates for every change.
+ * The candidates are computed once per {@link ReactionDispatchKey} and preserve the order in which the reactions
+ * were added.
+ */
+package class ReactionDispatchIndex {
+	val List<IReactionRealization> reactions = newArrayList
+	val Map<ReactionDispatchKey, List<IReactionRealization>> candidatesByKey = new HashMap
+
+	def void add(IReactionRealization reaction) {
+		reactions += reaction
+		candidatesByKey.clear()
+	}
+
+	def List<IReactionRealization> getCandidates(EChange change) {
+		candidatesByKey.computeIfAbsent(ReactionDispatchKey.of(change)) [ key |
+			reactions.filter[trigger === null || trigger.isCandidateFor(key)].toList
+		]
+	}
+}
@@ -0,0 +1,28 @@
+package tools.vitruv.extensions.dslsruntime.reactions
+
+import org.eclipse.xtend.lib.annotations.Data
+import tools.vitruv.framework.change.echange.EChange
+import tools.vitruv.framework.change.echange.eobject.EObjectExistenceEChange
+import tools.vitruv.framework.change.echange.feature.FeatureEChange
+
+/**
+ * The properties of a change that are relevant for finding the reactions that may match it.
+ * Changes with equal keys are dispatched to the same reactions.
+ */
+@Data
+package class ReactionDispatchKey {
+	val Class<?> changeType
+	val Class<?> affectedElementType
+	val String affectedFeatureName
+
+	static def ReactionDispatchKey of(EChange change) {
+		switch (change) {
+			FeatureEChange<?, ?>:
+				new ReactionDispatchKey(change.class, change.affectedEObject?.class, change.affectedFeature?.name)
+			EObjectExistenceEChange<?>:
+				new ReactionDispatchKey(change.class, change.affectedEObject?.class, null)
+			default:
+				new ReactionDispatchKey(change.class, null, null)
+		}
+	}
+}
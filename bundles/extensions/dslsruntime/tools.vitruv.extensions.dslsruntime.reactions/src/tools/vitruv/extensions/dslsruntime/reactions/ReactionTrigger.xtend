@@ -0,0 +1,27 @@
+package tools.vitruv.extensions.dslsruntime.reactions
+
+import org.eclipse.xtend.lib.annotations.Data
+import tools.vitruv.framework.change.echange.EChange
+
+/**
+ * Static description of the changes a reaction reacts to, generated for each reaction and used by the
+ * {@link AbstractReactionsExecutor} to only call reactions that may match a change.
+ * <p>
+ * A trigger is a necessary condition for a reaction to match a change: every change that does not conform
+ * to the trigger is guaranteed to be rejected by the reaction.
+ */
+@Data
+class ReactionTrigger {
+	/** The type of change the reaction reacts to */
+	val Class<? extends EChange> changeType
+	/** The type of the affected element of the change, or <code>null</code> if it is not restricted */
+	val Class<?> affectedElementType
+	/** The name of the affected feature of the change, or <code>null</code> if it is not restricted */
+	val String affectedFeatureName
+
+	package def boolean isCandidateFor(ReactionDispatchKey key) {
+		changeType.isAssignableFrom(key.changeType)
+			&& (affectedElementType === null || key.affectedElementType !== null && affectedElementType.isAssignableFrom(key.affectedElementType))
+			&& (affectedFeatureName === null || affectedFeatureName == key.affectedFeatureName)
+	}
+}
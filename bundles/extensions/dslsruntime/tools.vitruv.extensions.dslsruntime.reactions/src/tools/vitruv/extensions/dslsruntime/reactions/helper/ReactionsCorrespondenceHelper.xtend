@@ -36,10 +36,7 @@ final class ReactionsCorrespondenceHelper {
 	static def ReactionsCorrespondence addCorrespondence(
 		CorrespondenceModel correspondenceModel, EObject source, EObject target, String tag) {
 		logger.trace("Adding correspondence between " + source + " and " + target + " with tag: " + tag);
-		val correspondence = correspondenceModel.reactionsView.
-			createAndAddCorrespondence(#[source], #[target]);
-		correspondence.tag = tag ?: "";
-		return correspondence;
+		return correspondenceModel.reactionsView.createAndAddCorrespondence(#[source], #[target], tag ?: "");
 	}
 
 	static def <T> Iterable<T> getCorrespondingObjectsOfType(
@@ -4,20 +4,38 @@ import tools.vitruv.framework.change.echange.eobject.EObjectAddedEChange
 import tools.vitruv.framework.change.echange.eobject.EObjectSubtractedEChange
 import tools.vitruv.framework.change.echange.eobject.EObjectExistenceEChange
 import tools.vitruv.framework.change.echange.feature.FeatureEChange
+import tools.vitruv.framework.change.echange.root.RootEChange
 import org.eclipse.emf.ecore.EObject
 import static com.google.common.base.Preconditions.checkArgument
 import static com.google.common.base.Preconditions.checkState
 import tools.vitruv.framework.change.echange.id.IdResolver
+import org.eclipse.emf.ecore.EAttribute
+import org.eclipse.emf.ecore.EReference
+import org.eclipse.emf.ecore.EStructuralFeature
+import org.eclipse.emf.ecore.impl.BasicEObjectImpl
+import org.eclipse.emf.ecore.util.FeatureMapUtil
 
 /**
- * Provides logic for initializing the IDs within changes. 
+ * Provides logic for initializing the IDs within changes.
  */
 class EChangeIdManager {
+	// whether instances of a class compute URI fragment segments of their contents only from the containment structure
+	static val ClassValue<Boolean> USES_STRUCTURAL_URI_FRAGMENT_SEGMENTS = new ClassValue<Boolean>() {
+		override protected computeValue(Class<?> type) {
+			try {
+				return type.getMethod("eURIFragmentSegment", EStructuralFeature, EObject).declaringClass ==
+					BasicEObjectImpl
+			} catch (NoSuchMethodException e) {
+				return false
+			}
+		}
+	}
+
 	val IdResolver idResolver
 
 	/**
 	 * Initializes the manager with a {@link IdResolver}.
-	 * 
+	 *
 	 * @param idResolver -
 	 * 		the {@link IdResolver} to use for ID management
 	 */
@@ -75,4 +93,43 @@ class EChangeIdManager {
 		featureChange.affectedEObjectID = affectedEObject.id
 	}
 
+	/**
+	 * Returns whether applying the given change cannot modify the ID of any element. This is the case if
+	 * the change does not modify the containment structure and does not modify an attribute the ID of
+	 * the affected element may depend on. For a sequence of such changes, the IDs of all elements are the
+	 * same before and after each of the changes, so they can be set in the state after the last change.
+	 */
+	def static boolean preservesIds(EChange eChange) {
+		switch eChange {
+			EObjectExistenceEChange<?>,
+			RootEChange:
+				false
+			FeatureEChange<?, ?>:
+				switch feature : eChange.affectedFeature {
+					EReference: !feature.containment
+					EAttribute: !FeatureMapUtil.isFeatureMap(feature) && eChange.affectedEObject.hasStructuralId
+					default: false
+				}
+			default:
+				false
+		}
+	}
+
+	/**
+	 * Returns whether the hierarchic ID of the given element and of its contents only depends on the
+	 * containment structure and not on attribute values of the element, which is the case if neither
+	 * the element nor its container use keys or custom implementations to calculate URI fragment segments.
+	 */
+	private static def boolean hasStructuralId(EObject eObject) {
+		if (!USES_STRUCTURAL_URI_FRAGMENT_SEGMENTS.get(eObject.class)) {
+			return false
+		}
+		val container = eObject.eContainer
+		if (container === null) {
+			return true
+		}
+		val containingFeature = eObject.eContainingFeature
+		return USES_STRUCTURAL_URI_FRAGMENT_SEGMENTS.get(container.class) && containingFeature instanceof EReference &&
+			(containingFeature as EReference).EKeys.empty
+	}
 }
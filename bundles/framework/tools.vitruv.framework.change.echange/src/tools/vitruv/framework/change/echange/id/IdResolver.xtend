@@ -16,6 +16,14 @@ interface IdResolver {
 	 */
 	def String getAndUpdateId(EObject eObject)
 
+	/**
+	 * Calculates and updates the IDs of the given {@link EObject} and of all its directly and indirectly
+	 * contained elements. This is equivalent to calling {@link #getAndUpdateId} for the element and all
+	 * its contents in containment order, but derives the IDs of contained elements from the ID of their
+	 * container instead of calculating each of them from scratch.
+	 */
+	def void updateIdsRecursively(EObject eObject)
+
 	/**
 	 * Returns the {@link EObject} for the given ID. If more than one object was registered
 	 * for the ID, the last one is returned.
@@ -31,9 +39,19 @@ interface IdResolver {
 
 	/**
 	 * Ends a transactions such that all {@link EObject}s not being contained in a resource, which is
-	 * contained in a resource set, are removed from the ID mapping.
+	 * contained in a resource set, are removed from the ID mapping. Only elements whose ID was calculated
+	 * during the transaction are checked, so the effort depends on the size of the transaction rather
+	 * than on the number of registered elements.
 	 */
 	def void endTransaction()
+
+	/**
+	 * Stops observing the resources of the resource set. The resolver observes the resources of registered
+	 * elements to remove the elements from the ID mapping when their resource is removed from the resource
+	 * set or unloaded. Has to be called when the resolver is not used anymore, as the observed resources
+	 * reference the resolver otherwise.
+	 */
+	def void close()
 	
 	/**
 	 * Instantiates a {@link IdResolverAndRepository} with the given {@link ResourceSet}
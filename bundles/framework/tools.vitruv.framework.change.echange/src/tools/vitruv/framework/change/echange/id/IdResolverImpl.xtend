@@ -13,6 +13,16 @@ import static extension tools.vitruv.framework.util.ObjectResolutionUtil.getHier
 import static extension edu.kit.ipd.sdq.commons.util.org.eclipse.emf.ecore.resource.ResourceSetUtil.getOrCreateResource
 import com.google.common.collect.BiMap
 import com.google.common.collect.HashBiMap
+import java.util.HashMap
+import java.util.HashSet
+import java.util.Map
+import java.util.Set
+import org.eclipse.emf.ecore.EReference
+import org.eclipse.emf.ecore.EStructuralFeature
+import org.eclipse.emf.ecore.InternalEObject
+import org.eclipse.emf.common.notify.Notification
+import org.eclipse.emf.common.notify.impl.AdapterImpl
+import org.eclipse.emf.ecore.resource.Resource
 
 /**
  * {@link IdResolver}
@@ -23,7 +33,13 @@ package class IdResolverImpl implements IdResolver {
 	
 	val ResourceSet resourceSet
 	val BiMap<EObject, String> eObjectToId = HashBiMap.create()
-	
+	// elements whose ID was updated since the last transaction ended and which may have been removed:
+	val Set<EObject> removalCandidates = new HashSet
+	// elements in read-only resources, which are not registered in the ID mapping, by their ID:
+	val Map<String, EObject> readOnlyEObjects = new HashMap
+	// resources containing registered or cached elements, whose removal from the resource set and unloading is observed:
+	val Set<Resource> observedResources = new HashSet
+	val ResourceObserver resourceObserver
 
 	/**
 	 * Instantiates an ID resolver with the given {@link ResourceSet} for resolving objects.
@@ -35,24 +51,34 @@ package class IdResolverImpl implements IdResolver {
 	new(ResourceSet resourceSet) {
 		checkArgument(resourceSet !== null, "Resource set may not be null")
 		this.resourceSet = resourceSet
+		this.resourceObserver = new ResourceObserver(this, resourceSet)
 	}
 	
 	override endTransaction() {
 		cleanupRemovedElements()
 		checkState(cacheIds.noneMissing, "there are still elements in cache although a transaction has been closed")
 	}
+
+	override close() {
+		observedResources.forEach[eAdapters -= resourceObserver]
+		observedResources.clear()
+	}
 	
+	/**
+	 * Removes the IDs of elements that are not contained in a resource within a resource set anymore. Only
+	 * elements whose ID was updated during the transaction are considered, as every element that is
+	 * added to or removed from a resource by a change gets its ID updated when the change is applied.
+	 */
 	private def cleanupRemovedElements() {
-		for (val iterator = eObjectToId.keySet.iterator(); iterator.hasNext();) {
-			val object = iterator.next()
-			if (object.eResource === null || object.eResource.resourceSet === null) {
-				val id = eObjectToId.get(object)
+		for (object : removalCandidates) {
+			if (object.eResource?.resourceSet === null) {
+				val id = eObjectToId.remove(object)
 				if (id.isCache) {
 					cacheIds.push(id)
 				}
-				iterator.remove()
 			}
 		}
+		removalCandidates.clear()
 	}
 	
 	override getResource(URI uri) {
@@ -68,10 +94,77 @@ package class IdResolverImpl implements IdResolver {
 	}
 	
 	private def String registerObjectInResource(EObject eObject) {
-		val id = eObject.eResource.URI.appendFragment(eObject.hierarchicUriFragment).toString
+		val resource = eObject.eResource
+		resource.observe()
+		val id = resource.URI.appendFragment(eObject.hierarchicUriFragment).toString
 		register(id, eObject)
 		return id
 	}
+
+	override updateIdsRecursively(EObject eObject) {
+		val resourceUri = eObject.eResource?.URI
+		if (resourceUri !== null && !resourceUri.hasFragment) {
+			eObject.eResource.observe()
+			val fragment = eObject.hierarchicUriFragment
+			registerObjectsInResourceRecursively(resourceUri.toString + '#', eObject, fragment)
+		} else {
+			registerObjectsRecursively(eObject)
+		}
+	}
+
+	private def void registerObjectsRecursively(EObject eObject) {
+		eObject.getAndUpdateId()
+		eObject.eContents.forEach[registerObjectsRecursively]
+	}
+
+	/**
+	 * Registers the given element with the given hierarchic URI fragment and all its contents with fragments
+	 * derived from it, such that each fragment is built by appending a single segment to the fragment of the
+	 * container. Segments of elements in many-valued containment references are derived from the position of
+	 * the element while iterating over the contents instead of searching the element in the reference's list.
+	 * Contained elements that are root elements of a resource, such as elements contained in another resource
+	 * than their container, get their IDs calculated relative to that resource like with {@link #getAndUpdateId}.
+	 */
+	private def void registerObjectsInResourceRecursively(String idPrefix, EObject eObject, String fragment) {
+		register(idPrefix + fragment, eObject)
+		val container = eObject as InternalEObject
+		var EStructuralFeature currentFeature = null
+		var currentIndex = 0
+		var useIndexedSegments = false
+		for (child : eObject.eContents) {
+			val feature = child.eContainingFeature
+			if (feature !== currentFeature) {
+				currentFeature = feature
+				currentIndex = 0
+				useIndexedSegments = false
+			}
+			if ((child as InternalEObject).eDirectResource !== null) {
+				// cross-resource containment: the ID is relative to the resource of the child
+				updateIdsRecursively(child)
+			} else {
+				val segment = if (useIndexedSegments) {
+					feature.indexedSegment(currentIndex)
+				} else {
+					container.eURIFragmentSegment(feature, child)
+				}
+				if (currentIndex == 0) {
+					// the index of the first element in a list is known, so if its segment has the default format,
+					// the segments of the following elements have it as well
+					useIndexedSegments = feature.hasIndexedSegments && segment == feature.indexedSegment(0)
+				}
+				registerObjectsInResourceRecursively(idPrefix, child, fragment + '/' + segment)
+			}
+			currentIndex++
+		}
+	}
+
+	private static def boolean hasIndexedSegments(EStructuralFeature feature) {
+		feature instanceof EReference && feature.many && !feature.derived && (feature as EReference).EKeys.empty
+	}
+
+	private static def String indexedSegment(EStructuralFeature feature, int index) {
+		'@' + feature.name + '.' + index
+	}
 	
 	private def getOrRegisterCachedObject(EObject eObject) {
 		val storedId = eObjectToId.get(eObject)
@@ -90,26 +183,45 @@ package class IdResolverImpl implements IdResolver {
 		return eObject
 	}
 
+	/**
+	 * Returns the element for the given ID. Elements that are already registered are returned without parsing
+	 * the ID as a URI, unless they are contained in a read-only resource, because elements in read-only
+	 * resources are always retrieved from the resource set. Registered elements that have become proxies
+	 * because their resource was unloaded are replaced by the elements of the reloaded resource.
+	 */
 	private def EObject getEObjectOrNull(String id) {
+		var storedEObject = eObjectToId.inverse.get(id)
+		if (storedEObject !== null && storedEObject.eIsProxy) {
+			eObjectToId.remove(storedEObject)
+			storedEObject = null
+		}
+		if (storedEObject !== null && !storedEObject.eResource?.URI.isReadOnly) {
+			return storedEObject
+		}
 		val uri = URI.createURI(id)
-		return uri.getEObjectIfReadonlyUri()
-			?: uri.getStoredEObject()
+		return uri.getEObjectIfReadonlyUri(id)
+			?: storedEObject
 			?: uri.getAndRegisterNonStoredEObject()
 			?: null
 	}
 	
-	private def getEObjectIfReadonlyUri(URI uri) {
+	private def getEObjectIfReadonlyUri(URI uri, String id) {
 		if (uri.readOnly) {
 			if (uri.hasFragment) {
-				return resourceSet.getEObject(uri, true)
+				val cachedEObject = readOnlyEObjects.get(id)
+				if (cachedEObject !== null && cachedEObject.eResource?.resourceSet === resourceSet) {
+					return cachedEObject
+				}
+				val eObject = resourceSet.getEObject(uri, true)
+				if (eObject !== null) {
+					eObject.eResource.observe()
+					readOnlyEObjects.put(id, eObject)
+				}
+				return eObject
 			}
 		}
 	}
 	
-	private def getStoredEObject(URI uri) {
-		return eObjectToId.inverse.get(uri.toString)
-	}
-	
 	private def getAndRegisterNonStoredEObject(URI uri) {
 		val candidate = resourceSet.getEObject(uri, false)
 		if (candidate !== null) getAndUpdateId(candidate)
@@ -129,6 +241,7 @@ package class IdResolverImpl implements IdResolver {
 			eObjectToId.inverse.remove(oldId)
 		}
 		eObjectToId.put(eObject, id)
+		removalCandidates += eObject
 		if (oldId.isCache) {
 			cacheIds.push(oldId)
 		}
@@ -138,6 +251,38 @@ package class IdResolverImpl implements IdResolver {
 		}
 	}
 
+	private def observe(Resource resource) {
+		if (observedResources.add(resource)) {
+			resource.eAdapters += resourceObserver
+		}
+	}
+
+	/**
+	 * Removes the registered and cached elements of the given resource, which was removed from the resource set
+	 * or unloaded. No changes are applied for the elements in that case, so they are no removal candidates.
+	 * Unloaded elements have become proxies, and elements of a removed resource are still contained in it.
+	 * Removing or unloading a resource is rare and takes time proportional to the size of the resource, so
+	 * all registered elements are checked instead of tracking the elements of each resource.
+	 */
+	package def void releaseResource(Resource resource) {
+		if (resource.resourceSet !== resourceSet) {
+			resource.eAdapters -= resourceObserver
+			observedResources -= resource
+		}
+		val iterator = eObjectToId.entrySet.iterator
+		while (iterator.hasNext) {
+			val entry = iterator.next
+			if (entry.key.eIsProxy || entry.key.eResource === resource) {
+				val id = entry.value
+				iterator.remove()
+				if (id.isCache) {
+					cacheIds.push(id)
+				}
+			}
+		}
+		readOnlyEObjects.values.removeIf[eIsProxy || eResource === resource]
+	}
+
 	override hasEObject(String id) {
 		return id.getEObjectOrNull() !== null
 	}
@@ -186,5 +331,36 @@ package class IdResolverImpl implements IdResolver {
 		}
 
 	}
+
+	/**
+	 * Releases the elements of an observed resource in the {@link IdResolverImpl} when the resource is
+	 * removed from the resource set or unloaded.
+	 */
+	static class ResourceObserver extends AdapterImpl {
+		val IdResolverImpl idResolver
+		val ResourceSet resourceSet
+
+		new(IdResolverImpl idResolver, ResourceSet resourceSet) {
+			this.idResolver = idResolver
+			this.resourceSet = resourceSet
+		}
+
+		override notifyChanged(Notification notification) {
+			if (notification.touch) {
+				return
+			}
+			val resource = notification.notifier as Resource
+			switch (notification.getFeatureID(Resource)) {
+				case Resource.RESOURCE__RESOURCE_SET:
+					if (resource.resourceSet !== resourceSet) idResolver.releaseResource(resource)
+				case Resource.RESOURCE__IS_LOADED:
+					if (!resource.loaded) idResolver.releaseResource(resource)
+			}
+		}
+
+		override isAdapterForType(Object type) {
+			type === IdResolverImpl
+		}
+	}
 	
 }
@@ -29,6 +29,18 @@ class EChangeResolverAndApplicator {
 		return resolveCopy(eChange, idResolver)
 	}
 
+	/**
+	 * Creates a copy of the change, which may be resolved or unresolved, and resolves it using the given
+	 * {@link IdResolver}. This is equivalent to resolving the result of {@link #unresolve} but only copies
+	 * the change once.
+	 */
+	static def EChange unresolveAndResolveBefore(EChange eChange, IdResolver idResolver) {
+		val copy = EcoreUtil.copy(eChange)
+		EChangeUnresolver.unresolve(copy)
+		new AtomicEChangeResolver(idResolver).resolve(copy)
+		return copy
+	}
+
 	static def void applyForward(EChange eChange, IdResolver idResolver) {
 		executeUpdatingIds(eChange, idResolver, true)
 	}
@@ -37,6 +49,10 @@ class EChangeResolverAndApplicator {
 		executeUpdatingIds(eChange, idResolver, false)
 	}
 
+	static def void applyForward(EChange eChange) {
+		ApplyEChangeSwitch.applyEChange(eChange, true)
+	}
+
 	static def void applyBackward(EChange eChange) {
 		ApplyEChangeSwitch.applyEChange(eChange, false)
 	}
@@ -47,10 +63,10 @@ class EChangeResolverAndApplicator {
 		val oldObject = eChange.oldContainedEObject
 		ApplyEChangeSwitch.applyEChange(eChange, forward)
 		if (eChange.isContainmentChange || affectedId != idResolver.getAndUpdateId(affectedObject)) {
-			affectedObject.updateIds(idResolver)
+			idResolver.updateIdsRecursively(affectedObject)
 		}
 		if (oldObject !== null) {
-			oldObject.updateIds(idResolver)
+			idResolver.updateIdsRecursively(oldObject)
 		}
 	}
 	
@@ -76,11 +92,6 @@ class EChangeResolverAndApplicator {
 		}
 	}
 	
-	private static def void updateIds(EObject object, IdResolver idResolver) {
-		idResolver.getAndUpdateId(object)
-		object.eContents.forEach[updateIds(idResolver)]
-	}
-
 	/**
 	 * Creates a copy of the change and resolves it using the given {@link idResolver}.
 	 * 
@@ -0,0 +1,24 @@
+package tools.vitruv.framework.change.compaction
+
+import org.eclipse.xtend.lib.annotations.Data
+
+/**
+ * Statistics about the changes compacted by a {@link ChangeCompactor}, allowing to check how many
+ * {@link tools.vitruv.framework.change.echange.EChange EChanges} were removed by compaction.
+ */
+@Data
+class ChangeCompactionStatistics {
+	/** The number of transactional changes that were compacted */
+	val long compactedChanges
+	/** The number of EChanges in the compacted changes before compaction */
+	val long eChangesBeforeCompaction
+	/** The number of EChanges that remained in the compacted changes */
+	val long eChangesAfterCompaction
+
+	/**
+	 * Returns the ratio of EChanges that remained after compaction, which is 1 if no EChange was removed.
+	 */
+	def double getCompactionRatio() {
+		if (eChangesBeforeCompaction == 0) 1.0 else (eChangesAfterCompaction as double) / eChangesBeforeCompaction
+	}
+}
@@ -0,0 +1,310 @@
+package tools.vitruv.framework.change.compaction
+
+import java.util.ArrayList
+import java.util.HashMap
+import java.util.HashSet
+import java.util.List
+import java.util.Map
+import java.util.Objects
+import java.util.Set
+import org.eclipse.emf.ecore.EObject
+import org.eclipse.emf.ecore.EStructuralFeature
+import org.eclipse.emf.ecore.util.EcoreUtil
+import tools.vitruv.framework.change.description.TransactionalChange
+import tools.vitruv.framework.change.description.VitruviusChangeFactory
+import tools.vitruv.framework.change.echange.EChange
+import tools.vitruv.framework.change.echange.eobject.CreateEObject
+import tools.vitruv.framework.change.echange.eobject.DeleteEObject
+import tools.vitruv.framework.change.echange.eobject.EObjectAddedEChange
+import tools.vitruv.framework.change.echange.eobject.EObjectExistenceEChange
+import tools.vitruv.framework.change.echange.eobject.EObjectSubtractedEChange
+import tools.vitruv.framework.change.echange.feature.FeatureEChange
+import tools.vitruv.framework.change.echange.feature.attribute.InsertEAttributeValue
+import tools.vitruv.framework.change.echange.feature.attribute.RemoveEAttributeValue
+import tools.vitruv.framework.change.echange.feature.attribute.ReplaceSingleValuedEAttribute
+import tools.vitruv.framework.change.echange.feature.list.UpdateSingleListEntryEChange
+import tools.vitruv.framework.change.echange.feature.reference.InsertEReference
+import tools.vitruv.framework.change.echange.feature.reference.RemoveEReference
+import tools.vitruv.framework.change.echange.feature.reference.ReplaceSingleValuedEReference
+import tools.vitruv.framework.change.echange.feature.reference.UpdateReferenceEChange
+import tools.vitruv.framework.change.echange.feature.single.ReplaceSingleValuedFeatureEChange
+import tools.vitruv.framework.change.echange.root.InsertRootEObject
+import tools.vitruv.framework.change.echange.root.RemoveRootEObject
+
+/**
+ * Compacts {@link TransactionalChange}s by removing the {@link EChange}s that do not contribute to the state after
+ * the change: the changes of objects that are created and deleted within the change are removed, an insertion
+ * directly followed by the removal of the same value (or the other way round) is cancelled, and subsequent
+ * replacements of the value of the same single-valued feature are merged.
+ * <p>
+ * Applying a compacted change to the state before the change leads to the same state as applying the original change,
+ * but the intermediate states are skipped. Changes must thus only be compacted if no change propagation depends on
+ * the intermediate changes. The compacted changes must be resolved.
+ */
+class ChangeCompactor {
+	var long compactedChanges
+	var long eChangesBeforeCompaction
+	var long eChangesAfterCompaction
+
+	/**
+	 * Returns a change consisting of the compacted {@link EChange}s of the given change, having the same user
+	 * interactions.
+	 */
+	def TransactionalChange compact(TransactionalChange change) {
+		val compactedChange = VitruviusChangeFactory.instance.createTransactionalChange(compact(change.EChanges))
+		compactedChange.userInteractions = change.userInteractions
+		return compactedChange
+	}
+
+	/**
+	 * Returns the compacted sequence of the given {@link EChange}s.
+	 */
+	def List<EChange> compact(List<? extends EChange> eChanges) {
+		val result = eChanges.removeTemporaryObjects().cancelSubsequentInverseChanges().mergeAttributeReplacements()
+		compactedChanges++
+		eChangesBeforeCompaction += eChanges.size
+		eChangesAfterCompaction += result.size
+		return result
+	}
+
+	/**
+	 * Returns statistics about the changes compacted so far.
+	 */
+	def ChangeCompactionStatistics getStatistics() {
+		new ChangeCompactionStatistics(compactedChanges, eChangesBeforeCompaction, eChangesAfterCompaction)
+	}
+
+	/**
+	 * Removes the changes of objects that are created and deleted within the given changes. Only the deleted object
+	 * itself is deleted explicitly, so the objects created within the changes and contained in it at the end are
+	 * removed as well. If it contains an object that existed before, its changes are kept. The changes inserting
+	 * such an object into another one and removing it again must cancel out, otherwise the changes of the object
+	 * and of its container are kept.
+	 */
+	private static def List<EChange> removeTemporaryObjects(List<? extends EChange> eChanges) {
+		val createdObjects = new HashSet<EObject>
+		val deletedObjects = new HashSet<EObject>
+		val containers = new HashMap<EObject, EObject>
+		for (eChange : eChanges) {
+			switch (eChange) {
+				CreateEObject<?>:
+					// an object created again after being deleted is not temporary, unless it is deleted again
+					if (!createdObjects.add(eChange.affectedEObject)) deletedObjects -= eChange.affectedEObject
+				DeleteEObject<?>:
+					if (createdObjects.contains(eChange.affectedEObject)) deletedObjects += eChange.affectedEObject
+			}
+			containers.updateContainer(eChange)
+		}
+		// objects that existed before would be removed from the model together with their temporary container
+		for (existingObject : containers.keySet.filter[!createdObjects.contains(it)]) {
+			deletedObjects.removeAll(containers.get(existingObject).withContainers(containers))
+		}
+		while (!deletedObjects.empty) {
+			val temporaryObjects = createdObjects.filter [
+				withContainers(containers).exists[container|deletedObjects.contains(container)]
+			].toSet
+			val remainingChanges = eChanges.filter[!temporaryObjects.contains(affectedEObjectOf(it))].
+				cancelSubsequentInverseChanges()
+			val referencedTemporaryObjects = remainingChanges.flatMap[involvedEObjectsOf(it)].filter [
+				temporaryObjects.contains(it)
+			].toSet
+			if (referencedTemporaryObjects.empty) {
+				return remainingChanges
+			}
+			referencedTemporaryObjects.forEach[deletedObjects.removeAll(withContainers(containers))]
+		}
+		return new ArrayList<EChange>(eChanges)
+	}
+
+	/**
+	 * Updates the given containers of objects, which are <code>null</code> for root objects and removed objects,
+	 * according to the given change.
+	 */
+	private static def void updateContainer(Map<EObject, EObject> containers, EChange eChange) {
+		switch (eChange) {
+			UpdateReferenceEChange<?> case eChange.containment: {
+				val affectedEObject = eChange.affectedEObject
+				val subtractedEObject = if (eChange instanceof EObjectSubtractedEChange<?>) eChange.oldValue
+				val addedEObject = if (eChange instanceof EObjectAddedEChange<?>) eChange.newValue
+				val previousContainer = containers.get(subtractedEObject)
+				// a moved object may have been inserted into its new container before
+				if (subtractedEObject !== null && (previousContainer === null || previousContainer === affectedEObject)) {
+					containers.put(subtractedEObject, null)
+				}
+				if (addedEObject !== null) {
+					containers.put(addedEObject, affectedEObject)
+				}
+			}
+			InsertRootEObject<?>:
+				containers.put(eChange.newValue, null)
+			RemoveRootEObject<?>:
+				containers.put(eChange.oldValue, null)
+		}
+	}
+
+	/**
+	 * Returns the given object and its containers at the end of the changes, as far as they are known.
+	 */
+	private static def Set<EObject> withContainers(EObject object, Map<EObject, EObject> containers) {
+		val result = new HashSet<EObject>
+		var EObject current = object
+		while (current !== null && result.add(current)) {
+			current = containers.get(current)
+		}
+		return result
+	}
+
+	/**
+	 * Removes changes that are directly followed by their inverse change and merges directly subsequent
+	 * replacements of the same single-valued reference. Changes that become subsequent by doing so are handled
+	 * as well.
+	 */
+	private static def List<EChange> cancelSubsequentInverseChanges(Iterable<? extends EChange> eChanges) {
+		val result = new ArrayList<EChange>
+		for (eChange : eChanges) {
+			val previous = result.last
+			if (previous !== null && previous.isCancelledBy(eChange)) {
+				result.remove(result.size - 1)
+			} else if (previous !== null && previous.isContinuedBy(eChange)) {
+				result.remove(result.size - 1)
+				val merged = (previous as ReplaceSingleValuedEReference<EObject, EObject>).mergeWith(
+					eChange as ReplaceSingleValuedEReference<EObject, EObject>)
+				if (!merged.isWithoutEffect) {
+					result += merged
+				}
+			} else {
+				result += eChange
+			}
+		}
+		return result
+	}
+
+	/**
+	 * Merges the replacements of the value of the same single-valued attribute into the first of them, as long as no
+	 * other change between them involves the affected object. The merged replacement takes the place of the first
+	 * one, as the IDs of the first replacement are only valid in the state before it, which other changes between
+	 * the replacements, such as inserting a sibling of the affected object, may modify.
+	 */
+	private static def List<EChange> mergeAttributeReplacements(List<EChange> eChanges) {
+		val result = new ArrayList<EChange>(eChanges.size)
+		// the indices of the first replacement of each attribute in the result, dropped when the object is involved
+		// in another change
+		val firstReplacements = new HashMap<EObject, Map<EStructuralFeature, Integer>>
+		for (eChange : eChanges) {
+			if (eChange instanceof ReplaceSingleValuedEAttribute<?, ?>) {
+				val replacementsOfObject = firstReplacements.computeIfAbsent(eChange.affectedEObject) [
+					new HashMap<EStructuralFeature, Integer>
+				]
+				val firstIndex = replacementsOfObject.get(eChange.affectedFeature)
+				if (firstIndex !== null) {
+					val replacement = (result.get(firstIndex) as ReplaceSingleValuedEAttribute<EObject, Object>).
+						mergeWith(eChange as ReplaceSingleValuedEAttribute<EObject, Object>)
+					if (replacement.isWithoutEffect) {
+						replacementsOfObject.remove(eChange.affectedFeature)
+						result.set(firstIndex, null)
+					} else {
+						result.set(firstIndex, replacement)
+					}
+				} else {
+					replacementsOfObject.put(eChange.affectedFeature, result.size)
+					result += eChange
+				}
+			} else {
+				involvedEObjectsOf(eChange).forEach[firstReplacements.remove(it)]
+				result += eChange
+			}
+		}
+		return result.filterNull.toList
+	}
+
+	private static def boolean isCancelledBy(EChange eChange, EChange nextEChange) {
+		switch (eChange) {
+			InsertEAttributeValue<?, ?>:
+				nextEChange instanceof RemoveEAttributeValue<?, ?> && !eChange.wasUnset &&
+					eChange.affectsSameEntryAs(nextEChange as RemoveEAttributeValue<?, ?>) &&
+					Objects.equals(eChange.newValue, (nextEChange as RemoveEAttributeValue<?, ?>).oldValue)
+			RemoveEAttributeValue<?, ?>:
+				nextEChange instanceof InsertEAttributeValue<?, ?> &&
+					!(nextEChange as InsertEAttributeValue<?, ?>).wasUnset &&
+					eChange.affectsSameEntryAs(nextEChange as InsertEAttributeValue<?, ?>) &&
+					Objects.equals(eChange.oldValue, (nextEChange as InsertEAttributeValue<?, ?>).newValue)
+			InsertEReference<?, ?>:
+				nextEChange instanceof RemoveEReference<?, ?> && !eChange.wasUnset &&
+					eChange.affectsSameEntryAs(nextEChange as RemoveEReference<?, ?>) &&
+					eChange.newValue === (nextEChange as RemoveEReference<?, ?>).oldValue
+			RemoveEReference<?, ?>:
+				nextEChange instanceof InsertEReference<?, ?> && !(nextEChange as InsertEReference<?, ?>).wasUnset &&
+					eChange.affectsSameEntryAs(nextEChange as InsertEReference<?, ?>) &&
+					eChange.oldValue === (nextEChange as InsertEReference<?, ?>).newValue
+			InsertRootEObject<?>:
+				nextEChange instanceof RemoveRootEObject<?> &&
+					eChange.uri == (nextEChange as RemoveRootEObject<?>).uri &&
+					eChange.index == (nextEChange as RemoveRootEObject<?>).index &&
+					eChange.newValue === (nextEChange as RemoveRootEObject<?>).oldValue
+			RemoveRootEObject<?>:
+				nextEChange instanceof InsertRootEObject<?> &&
+					eChange.uri == (nextEChange as InsertRootEObject<?>).uri &&
+					eChange.index == (nextEChange as InsertRootEObject<?>).index &&
+					eChange.oldValue === (nextEChange as InsertRootEObject<?>).newValue
+			default:
+				false
+		}
+	}
+
+	private static def boolean affectsSameEntryAs(UpdateSingleListEntryEChange<?, ?> eChange,
+		UpdateSingleListEntryEChange<?, ?> otherEChange) {
+		eChange.affectedEObject === otherEChange.affectedEObject &&
+			eChange.affectedFeature === otherEChange.affectedFeature && eChange.index == otherEChange.index
+	}
+
+	private static def boolean isContinuedBy(EChange eChange, EChange nextEChange) {
+		eChange instanceof ReplaceSingleValuedEReference<?, ?> &&
+			nextEChange instanceof ReplaceSingleValuedEReference<?, ?> && {
+			val replacement = eChange as ReplaceSingleValuedEReference<?, ?>
+			val nextReplacement = nextEChange as ReplaceSingleValuedEReference<?, ?>
+			replacement.affectedEObject === nextReplacement.affectedEObject &&
+				replacement.affectedFeature === nextReplacement.affectedFeature &&
+				replacement.newValue === nextReplacement.oldValue
+		}
+	}
+
+	private static def <A extends EObject, T extends EObject> ReplaceSingleValuedEReference<A, T> mergeWith(
+		ReplaceSingleValuedEReference<A, T> replacement, ReplaceSingleValuedEReference<A, T> nextReplacement) {
+		EcoreUtil.copy(nextReplacement) => [
+			// the merged change is applied in the state before the first replacement
+			affectedEObjectID = replacement.affectedEObjectID
+			oldValue = replacement.oldValue
+			oldValueID = replacement.oldValueID
+			wasUnset = replacement.wasUnset
+		]
+	}
+
+	private static def <A extends EObject, T> ReplaceSingleValuedEAttribute<A, T> mergeWith(
+		ReplaceSingleValuedEAttribute<A, T> replacement, ReplaceSingleValuedEAttribute<A, T> nextReplacement) {
+		EcoreUtil.copy(nextReplacement) => [
+			// the merged change takes the place of the first replacement, in the state before which the replaced
+			// attribute may still determine the ID of the affected element
+			affectedEObjectID = replacement.affectedEObjectID
+			oldValue = replacement.oldValue
+			wasUnset = replacement.wasUnset
+		]
+	}
+
+	private static def boolean isWithoutEffect(ReplaceSingleValuedFeatureEChange<?, ?, ?> replacement) {
+		// whether an unsettable feature was set before is not recorded, so replacing its value may have an effect
+		!replacement.affectedFeature.unsettable && replacement.oldValue == replacement.newValue
+	}
+
+	private static def EObject affectedEObjectOf(EChange eChange) {
+		switch (eChange) {
+			FeatureEChange<?, ?>: eChange.affectedEObject
+			EObjectExistenceEChange<?>: eChange.affectedEObject
+		}
+	}
+
+	private static def Iterable<EObject> involvedEObjectsOf(EChange eChange) {
+		val addedEObject = if (eChange instanceof EObjectAddedEChange<?>) eChange.newValue
+		val subtractedEObject = if (eChange instanceof EObjectSubtractedEChange<?>) eChange.oldValue
+		#[affectedEObjectOf(eChange), addedEObject, subtractedEObject].filterNull
+	}
+}
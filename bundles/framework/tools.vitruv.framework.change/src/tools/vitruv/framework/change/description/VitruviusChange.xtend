@@ -35,6 +35,16 @@ interface VitruviusChange {
 	 */
 	def VitruviusChange resolveAndApply(ResourceSet resourceSet)
 
+	/**
+	 * Resolves the change in the given {@link ResourceSet} and applies it forward, like {@link #resolveAndApply}
+	 * does, but also accepts a change that is resolved in another resource set. This is equivalent to calling
+	 * {@link #unresolve} and {@link #resolveAndApply} on the result, but does not create the intermediate
+	 * unresolved change. Returns the resolved change.
+	 * 
+	 * @throws IllegalStateException if the change cannot be resolved.
+	 */
+	def VitruviusChange unresolveAndResolveAndApply(ResourceSet resourceSet)
+
 	/**
 	 * Returns an unresolved change, such that all its affected and referenced {@link EObjects} are removed.
 	 */
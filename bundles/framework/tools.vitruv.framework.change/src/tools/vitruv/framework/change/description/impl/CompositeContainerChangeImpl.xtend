@@ -19,6 +19,10 @@ class CompositeContainerChangeImpl extends AbstractCompositeChangeImpl<Vitruvius
 		new CompositeContainerChangeImpl(changes.mapFixed[resolveAndApply(resourceSet)])
 	}
 	
+	override unresolveAndResolveAndApply(ResourceSet resourceSet) {
+		new CompositeContainerChangeImpl(changes.mapFixed[unresolveAndResolveAndApply(resourceSet)])
+	}
+	
 	override unresolve() {
 		new CompositeContainerChangeImpl(changes.mapFixed[unresolve()])
 	}
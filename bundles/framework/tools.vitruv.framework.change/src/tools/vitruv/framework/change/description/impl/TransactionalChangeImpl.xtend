@@ -65,13 +65,25 @@ class TransactionalChangeImpl implements TransactionalChange {
 	}
 
 	override resolveAndApply(ResourceSet resourceSet) {
+		resolveAndApply(resourceSet, false)
+	}
+
+	override unresolveAndResolveAndApply(ResourceSet resourceSet) {
+		resolveAndApply(resourceSet, true)
+	}
+
+	private def resolveAndApply(ResourceSet resourceSet, boolean unresolveFirst) {
 		val idResolver = IdResolver.create(resourceSet)
-		val resolvedChanges = eChanges.mapFixed[
-			val resolvedChange = resolveBefore(idResolver)
-			resolvedChange.applyForward(idResolver)
-			resolvedChange
-		]
-		return new TransactionalChangeImpl(resolvedChanges)
+		try {
+			val resolvedChanges = eChanges.mapFixed[
+				val resolvedChange = if (unresolveFirst) unresolveAndResolveBefore(idResolver) else resolveBefore(idResolver)
+				resolvedChange.applyForward(idResolver)
+				resolvedChange
+			]
+			return new TransactionalChangeImpl(resolvedChanges)
+		} finally {
+			idResolver.close()
+		}
 	}
 
 	override unresolve() {
@@ -1,5 +1,9 @@
 package tools.vitruv.framework.change.propagation;
 
+import java.util.List;
+
+import tools.vitruv.framework.change.description.PropagatedChange;
+
 /**
  * Listener for the change propagation status.
  */
@@ -15,6 +19,18 @@ public interface ChangePropagationListener {
 	 */
 	void finishedChangePropagation();
 
+	/**
+	 * Called after the change propagation is finished with the changes that have
+	 * been propagated. Delegates to {@link #finishedChangePropagation()} by
+	 * default, so listeners only need to implement it if they use the changes.
+	 *
+	 * @param propagatedChanges The {@link PropagatedChange}s that have been
+	 *                          propagated.
+	 */
+	default void finishedChangePropagation(List<PropagatedChange> propagatedChanges) {
+		finishedChangePropagation();
+	}
+
 	/**
 	 * Called if the change propagation has been aborted.
 	 *
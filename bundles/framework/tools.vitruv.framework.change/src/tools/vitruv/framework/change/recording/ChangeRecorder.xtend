@@ -1,15 +1,19 @@
 package tools.vitruv.framework.change.recording
 
 import java.util.ArrayList
+import java.util.Collections
 import java.util.HashSet
 import java.util.List
 import java.util.Set
+import java.util.WeakHashMap
+import java.util.function.Consumer
 import org.eclipse.emf.common.notify.Adapter
 import org.eclipse.emf.common.notify.Notification
 import org.eclipse.emf.common.notify.Notifier
 import org.eclipse.emf.ecore.EObject
 import org.eclipse.emf.ecore.resource.Resource
 import org.eclipse.emf.ecore.resource.ResourceSet
+import org.eclipse.xtend.lib.annotations.Accessors
 import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
 import tools.vitruv.framework.change.description.TransactionalChange
 import tools.vitruv.framework.change.description.VitruviusChangeFactory
@@ -22,6 +26,7 @@ import static org.eclipse.emf.common.notify.Notification.*
 
 import static extension org.eclipse.emf.ecore.util.EcoreUtil.*
 import static extension tools.vitruv.framework.change.echange.EChangeUtil.*
+import static extension tools.vitruv.framework.change.echange.EChangeIdManager.preservesIds
 import org.eclipse.emf.ecore.EReference
 import static com.google.common.base.Preconditions.checkNotNull
 import static com.google.common.base.Preconditions.checkArgument
@@ -33,6 +38,8 @@ import static extension tools.vitruv.framework.change.echange.resolve.EChangeRes
 import tools.vitruv.framework.change.echange.id.IdResolver
 import tools.vitruv.framework.change.echange.feature.reference.UpdateReferenceEChange
 import tools.vitruv.framework.change.echange.EChange
+import tools.vitruv.framework.change.echange.eobject.DeleteEObject
+import tools.vitruv.framework.change.echange.eobject.CreateEObject
 
 /**
  * Records changes to model elements as a {@link TransactionalChange}.
@@ -54,9 +61,25 @@ class ChangeRecorder implements AutoCloseable {
 	val NotificationToEChangeConverter converter
 	val IdResolver idResolver
 	val EChangeIdManager eChangeIdManager
-	val Set<EObject> existingObjects = new HashSet
+	// Elements carrying the recording adapter are known to exist. This set only contains the existing elements
+	// that do not carry it, such as elements created while recording that are not contained in a recorded
+	// element (yet), or elements removed from the recorded elements. It references them weakly, such that
+	// deleted elements can be garbage collected. EObjects do not override equals, so the set uses identity.
+	val Set<EObject> existingObjects = Collections.newSetFromMap(new WeakHashMap<EObject, Boolean>)
 	val Set<Notifier> toDesinfect = new HashSet
 	val ResourceSet resourceSet
+	// while recording into a sink: the consumer of the recorded batches and their minimum size
+	Consumer<? super TransactionalChange> changeSink = null
+	int batchSize
+	// while recording into a sink: the elements created since the last batch that have not been inserted into a
+	// containment reference or resource yet. Their IDs are released at the end of a batch, so the batch is deferred.
+	val Set<EObject> uncontainedCreatedObjects = new HashSet
+	/**
+	 * Whether IDs are always assigned by rolling back and replaying the recorded changes, even if no recorded
+	 * change can modify IDs. Replaying is slower, but can be used to verify the IDs assigned without replaying.
+	 */
+	@Accessors
+	boolean alwaysReplayForIdAssignment = false
 
 	new(ResourceSet resourceSet) {
 		this.resourceSet = resourceSet
@@ -71,7 +94,7 @@ class ChangeRecorder implements AutoCloseable {
 		// We do not check the containment of the reference, because an element may be inserted into a non-containment
 		// reference before inserting it into a containment reference so that the create change has to be added
 		// for the insertion into the non-containment reference
-		var create = addedObject !== null && !existingObjects.contains(addedObject)
+		var create = addedObject !== null && !addedObject.isExisting
 		// Look if the new value has no resource or if it is a reference change, if the resource of the affected
 		// object is the same. Otherwise, the create has to be handled by an insertion/reference in that resource, as
 		// it can be potentially a reference to a third party model, for which no create shall be instantiated		
@@ -81,9 +104,14 @@ class ChangeRecorder implements AutoCloseable {
 		return create;
 	}
 
+	private def boolean isExisting(EObject eObject) {
+		eObject.eAdapters.contains(recordingAdapter) || existingObjects.contains(eObject)
+	}
+
 	/**
 	 * Add the given elements and all its contained elements ({@link Resource}s, {@link EObject}s) to the recorder.
-	 * Register all existing elements at the {@link IdResolverAndRepository} with existing UUIDs.
+	 * The elements are considered existing because they carry the recording adapter afterwards, so adding
+	 * elements only installs the adapter and does not register the elements anywhere else.
 	 * 
 	 * @param notifier - the {@link Notifier} to add the recorder to
 	 * @throws IllegalStateException if the recorder is already disposed
@@ -95,22 +123,23 @@ class ChangeRecorder implements AutoCloseable {
 			"cannot record changes in a different resource set than that of our ID resolver!")
 
 		if (rootObjects += notifier) {
-			notifier.recursively [
-				if(it instanceof EObject) existingObjects.add(it)
-				addAdapter()
-			]
+			notifier.recursively[addAdapter()]
 		}
 	}
 
 	/**
 	 * Removes the given elements and all its contained elements (resources, EObjects) from the recorder.
+	 * The recorder does not keep references to the removed elements, so that they can be unloaded.
 	 * @param notifier - the {@link Notifier} to remove the recorder from
 	 */
 	def void removeFromRecording(Notifier notifier) {
 		checkNotDisposed()
 		checkNotNull(notifier, "notifier")
 		rootObjects -= notifier
-		notifier.recursively[removeAdapter()]
+		notifier.recursively [
+			if(it instanceof EObject) existingObjects.remove(it)
+			removeAdapter()
+		]
 	}
 
 	/**
@@ -119,19 +148,52 @@ class ChangeRecorder implements AutoCloseable {
 	def beginRecording() {
 		checkNotDisposed()
 		checkState(!isRecording, "This recorder is already recording!")
-		toDesinfect.forEach[recursively [removeAdapter()]]
+		toDesinfect.forEach [
+			recursively [
+				// elements removed before remain existing, such that adding them again does not create them,
+				// unless they were removed because their resource was unloaded
+				if(it instanceof EObject && !(it as EObject).eIsProxy) existingObjects += it as EObject
+				removeAdapter()
+			]
+		]
 		toDesinfect.clear()
 		isRecording = true
 		resultChanges = new ArrayList
 	}
 
+	/**
+	 * Starts recording changes on the registered elements and hands them to the given sink in batches instead
+	 * of collecting all of them until the recording ends, such that only a bounded number of changes is kept
+	 * in memory. Whenever {@link #flushBatch} is called after the given number of changes has been recorded,
+	 * they are post-processed as done by {@link #endRecording} and handed to the sink as one
+	 * {@link TransactionalChange}. Thus, elements that were removed from their container and not inserted into
+	 * another one within the same batch are considered deleted at the end of that batch, and inserting them
+	 * later creates them again. Elements created in a batch have to be inserted into a containment reference or
+	 * resource in the same batch, so the batch is deferred until all elements created in it have been inserted.
+	 * The batches have to be applied in the order they are handed to the sink.
+	 * {@link #endRecording} hands the remaining changes to the sink and returns an empty change.
+	 * 
+	 * @param changeSink - the consumer of the recorded batches of changes
+	 * @param batchSize - the number of recorded changes after which {@link #flushBatch} hands them to the sink
+	 */
+	def beginRecording(Consumer<? super TransactionalChange> changeSink, int batchSize) {
+		checkNotNull(changeSink, "change sink")
+		checkArgument(batchSize > 0, "batch size must be positive but was %s", batchSize)
+		beginRecording()
+		this.changeSink = changeSink
+		this.batchSize = batchSize
+		uncontainedCreatedObjects.clear()
+	}
+
 	override close() {
 		isRecording = false
 		resultChanges = null
 		val rootCopy = Set.copyOf(rootObjects)
 		rootObjects.clear()
 		existingObjects.clear()
+		uncontainedCreatedObjects.clear()
 		rootCopy.forEach[recursively [removeAdapter()]]
+		idResolver.close()
 	}
 
 	def private checkNotDisposed() {
@@ -148,14 +210,93 @@ class ChangeRecorder implements AutoCloseable {
 		checkNotDisposed()
 		checkState(isRecording, "This recorder is not recording")
 		isRecording = false
-		resultChanges = List.copyOf(resultChanges.postprocessRemovals().assignIds())
+		if (changeSink !== null) {
+			if(!resultChanges.empty) handOverBatch()
+			changeSink = null
+			uncontainedCreatedObjects.clear()
+			resultChanges = emptyList
+		} else {
+			resultChanges = List.copyOf(resultChanges.postprocessRemovals().assignIds())
+		}
 		idResolver.endTransaction()
+		// created elements that were inserted into recorded elements are known by their adapter
+		existingObjects.removeIf[eAdapters.contains(recordingAdapter)]
 		return getChange()
 	}
 
+	private def void addRecordedChanges(Iterable<? extends EChange> newChanges) {
+		resultChanges += newChanges
+		if (changeSink !== null) {
+			for (change : newChanges) {
+				switch (change) {
+					CreateEObject<?>:
+						uncontainedCreatedObjects += change.affectedEObject
+					EObjectAddedEChange<?> case change.isContainmentInsertion:
+						uncontainedCreatedObjects -= change.newValue
+				}
+			}
+		}
+	}
+
+	/**
+	 * Hands the changes recorded since the last batch to the change sink given to
+	 * {@link #beginRecording(Consumer, int)} if at least the batch size of them has been recorded and all elements
+	 * created in them have been inserted into a containment reference or resource. Has to be called between
+	 * modifications of the recorded elements, not while a notification is delivered, because assigning the IDs
+	 * may roll the recorded changes back and replay them, and the sink may modify elements.
+	 * 
+	 * @return whether a batch was handed to the sink
+	 * @throws IllegalStateException if the recorder is not recording into a sink
+	 */
+	def boolean flushBatch() {
+		checkNotDisposed()
+		checkState(isRecording && changeSink !== null, "This recorder is not recording into a sink")
+		if (resultChanges.size < batchSize || !uncontainedCreatedObjects.empty) {
+			return false
+		}
+		// the changes applied to assign IDs must not be recorded
+		isRecording = false
+		try {
+			handOverBatch()
+		} finally {
+			isRecording = true
+		}
+		return true
+	}
+
+	/**
+	 * Post-processes the changes recorded since the last batch and hands them to the change sink. Elements
+	 * considered deleted in the batch are removed from the recording, such that inserting them later creates them,
+	 * and the transaction of the ID resolver is ended, such that their IDs are released.
+	 */
+	private def void handOverBatch() {
+		val batch = List.copyOf(resultChanges.postprocessRemovals().assignIds())
+		resultChanges = new ArrayList
+		idResolver.endTransaction()
+		for (change : batch) {
+			if (change instanceof DeleteEObject<?>) {
+				change.affectedEObject.recursively [
+					if(it instanceof EObject) existingObjects.remove(it)
+					removeAdapter()
+				]
+			}
+		}
+		existingObjects.removeIf[eAdapters.contains(recordingAdapter)]
+		changeSink.accept(VitruviusChangeFactory.instance.createTransactionalChange(batch))
+	}
+
+	/**
+	 * Assigns the IDs of the elements in the state before each change to the changes. If no change can modify
+	 * the ID of an element, the IDs are the same in all states and are assigned in the current state. Otherwise,
+	 * the changes are rolled back and replayed to assign the IDs in the appropriate state.
+	 */
 	def private List<EChange> assignIds(List<EChange> changes) {
-		changes.toList.reverseView.forEach[applyBackward]
-		changes.forEach[assignIds]
+		if (!alwaysReplayForIdAssignment && changes.forall[preservesIds]) {
+			changes.forEach[eChangeIdManager.setOrGenerateIds(it)]
+		} else {
+			changes.toList.reverseView.forEach[applyBackward]
+			changes.forEach[assignIds]
+		}
 		changes
 	}
 
@@ -283,14 +424,18 @@ class ChangeRecorder implements AutoCloseable {
 		val Set<Resource> currentlyLoadingResources = new HashSet
 
 		override notifyChanged(Notification notification) {
-			notification.handleAdaptersForResourceAndResourceSetChanges()
+			notification.handleLoadingResources()
+			// changes are extracted before adapters are installed on added elements, as elements that carry the
+			// adapter already are considered existing when deciding whether adding them creates them
 			val newChanges = notification.extractRelevantChanges()
+			notification.handleAdaptersForResourceAndResourceSetChanges()
+			newChanges.registerExistingObjects()
 			if (isRecording) {
-				resultChanges += newChanges
+				addRecordedChanges(newChanges)
 			}
 		}
 
-		private def handleAdaptersForResourceAndResourceSetChanges(Notification notification) {
+		private def handleLoadingResources(Notification notification) {
 			// EMF sets the "loaded" flag of resources to true before notification for adding the loaded contents are
 			// emitted and then emits the notification for setting the "loaded" flag afterwards.
 			// Thus, we prevent the notification recorder to be injected until the according notification for setting
@@ -306,6 +451,9 @@ class ChangeRecorder implements AutoCloseable {
 						]
 				}
 			}
+		}
+
+		private def handleAdaptersForResourceAndResourceSetChanges(Notification notification) {
 			switch (feature: notification.feature) {
 				EReference case feature.isContainment,
 				case notification.notifier instanceof Resource &&
@@ -338,28 +486,33 @@ class ChangeRecorder implements AutoCloseable {
 				} else {
 					converter.convert(new NotificationInfo(notification))
 				}
-			if (!changes.isEmpty) {
-				// Register any added object as existing, even if we are not recording
-				changes.forEach [
-					if (it instanceof EObjectAddedEChange<?>) {
-						existingObjects += newValue
-						if(it instanceof UpdateReferenceEChange<?>) existingObjects += affectedEObject
-					}
-				]
-			}
 			return changes
 		}
 
+		private def void registerExistingObjects(Iterable<? extends EChange> changes) {
+			// Register any added object as existing, even if we are not recording. Objects that received the
+			// adapter, because they were added to a recorded element, are already known to exist.
+			for (change : changes) {
+				if (change instanceof EObjectAddedEChange<?>) {
+					change.newValue.registerExisting()
+					if(change instanceof UpdateReferenceEChange<?>) change.affectedEObject.registerExisting()
+				}
+			}
+		}
+
+		private def void registerExisting(EObject eObject) {
+			if (eObject !== null && !eObject.eAdapters.contains(recordingAdapter)) {
+				existingObjects += eObject
+			}
+		}
+
 		private def void startLoadingResource(Resource resource) {
 			currentlyLoadingResources += resource
 		}
 
 		private def void finishLoadingResource(Resource resource) {
 			currentlyLoadingResources -= resource
-			resource.recursively [
-				if(it instanceof EObject) existingObjects.add(it)
-				addAdapter()
-			]
+			resource.recursively[addAdapter()]
 		}
 
 		private def boolean affectsLoadingResource(Notification notification) {
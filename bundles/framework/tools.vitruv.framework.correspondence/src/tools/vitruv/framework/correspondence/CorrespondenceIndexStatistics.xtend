@@ -0,0 +1,37 @@
+package tools.vitruv.framework.correspondence
+
+import org.eclipse.xtend.lib.annotations.Data
+
+/**
+ * Statistics about the index used by an {@link InternalCorrespondenceModel} to look up correspondences,
+ * allowing to check whether the index pays off for a specific model.
+ */
+@Data
+class CorrespondenceIndexStatistics {
+	/** The number of distinct element lists that correspondences are indexed for */
+	val int indexedElementLists
+	/** The number of distinct elements that correspondences are indexed for */
+	val int indexedElements
+	/** The number of distinct combinations of element list and tag that correspondences are indexed for */
+	val int indexedTaggedElementLists
+	/** The number of lookups without a tag */
+	val long lookups
+	/** The number of lookups without a tag that found at least one correspondence */
+	val long lookupHits
+	/** The number of lookups with a tag, which are answered by the tag- and type-partitioned index */
+	val long taggedLookups
+	/** The number of lookups with a tag that found at least one correspondence */
+	val long taggedLookupHits
+
+	def double getLookupHitRatio() {
+		ratio(lookupHits, lookups)
+	}
+
+	def double getTaggedLookupHitRatio() {
+		ratio(taggedLookupHits, taggedLookups)
+	}
+
+	private static def double ratio(long hits, long total) {
+		if (total == 0) 0.0 else hits as double / total
+	}
+}
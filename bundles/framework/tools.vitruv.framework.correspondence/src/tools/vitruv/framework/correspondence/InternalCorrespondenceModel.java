@@ -6,6 +6,7 @@ import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 
 /**
@@ -29,6 +30,58 @@ public interface InternalCorrespondenceModel extends GenericCorrespondenceModel<
 	 */
 	public void save();
 
+	/**
+	 * Returns whether correspondences were added or removed since this
+	 * correspondence model was loaded or saved.
+	 * 
+	 * @return whether the correspondences were modified
+	 */
+	public boolean isModified();
+
+	/**
+	 * Releases the correspondences referring to elements of the given
+	 * {@link Resource}, which is about to be unloaded. The correspondences are
+	 * kept, but they are resolved again, and thus the resource is loaded again,
+	 * when correspondences of one of their elements are requested.
+	 * 
+	 * @param resource
+	 *            - the {@link Resource} that is about to be unloaded
+	 */
+	public void releaseCorrespondencesOf(Resource resource);
+
+	/**
+	 * Registers elements that were removed from their container or resource, or
+	 * that were deleted. On save, the correspondences of these elements and of the
+	 * elements contained in them are removed if the elements are not contained in
+	 * a resource anymore. Apart from correspondences created since the last save,
+	 * only these correspondences are checked for removed elements on save.
+	 * <p>
+	 * Elements that are not removed by a change, but disappear because their
+	 * resource is removed from its resource set or unloaded without releasing its
+	 * correspondences with {@link #releaseCorrespondencesOf(Resource)}, have to be
+	 * registered as well, for example by registering the root elements of the
+	 * resource before removing or unloading it. Otherwise,
+	 * {@link #removeCorrespondencesOfRemovedElements()} has to be called to remove
+	 * their correspondences.
+	 * 
+	 * @param eObjects
+	 *            - the removed {@link EObject}s
+	 */
+	public void registerRemovedElements(Iterable<? extends EObject> eObjects);
+
+	/**
+	 * Checks all correspondences for elements that are not contained in a
+	 * resource anymore and removes these correspondences, regardless of whether
+	 * the removal of their elements was registered. This can be used to restore
+	 * consistency after models were modified without registering the removed
+	 * elements. In particular, it is required after a resource was removed from
+	 * its resource set or unloaded without registering its elements or releasing
+	 * its correspondences, as such removals are not recorded as changes.
+	 * 
+	 * @return the removed correspondences
+	 */
+	public Set<Correspondence> removeCorrespondencesOfRemovedElements();
+
 	/**
 	 * Creates a correspondence of given type <C> with the given tag between the
 	 * given lists of {@link EObject}s.
@@ -122,4 +175,13 @@ public interface InternalCorrespondenceModel extends GenericCorrespondenceModel<
 	public <C extends Correspondence> Set<Correspondence> removeCorrespondencesFor(Class<C> correspondenceType,
 			Predicate<C> correspondencesFilter, List<EObject> eObjects, String tag);
 
+	/**
+	 * Returns statistics about the index used to look up correspondences, such as
+	 * the number of indexed entries and the ratio of lookups that found
+	 * correspondences.
+	 * 
+	 * @return the current statistics of the correspondence index
+	 */
+	public CorrespondenceIndexStatistics getIndexStatistics();
+
 }
@@ -0,0 +1,184 @@
+package tools.vitruv.framework.correspondence.impl
+
+import java.util.Collections
+import java.util.HashMap
+import java.util.HashSet
+import java.util.IdentityHashMap
+import java.util.LinkedHashSet
+import java.util.List
+import java.util.Map
+import java.util.Set
+import org.eclipse.emf.common.notify.Notification
+import org.eclipse.emf.common.notify.impl.AdapterImpl
+import org.eclipse.emf.ecore.EClass
+import org.eclipse.emf.ecore.EObject
+import tools.vitruv.framework.correspondence.Correspondence
+import tools.vitruv.framework.correspondence.CorrespondenceIndexStatistics
+import tools.vitruv.framework.correspondence.CorrespondencePackage
+
+/**
+ * Index of {@link Correspondence}s by the lists of {@link EObject}s they relate and by the single {@link EObject}s
+ * contained in these lists. It allows to look up the correspondences of elements without scanning all
+ * correspondences. Additionally, correspondences are partitioned by their tag and by the types they are instances
+ * of, i.e., the instance classes of their {@link EClass} and its super types, such that lookups for a specific tag
+ * and type of correspondence directly find the matching correspondences of the elements.
+ * <p>
+ * The index has to be updated whenever a correspondence is added to or removed from the correspondence model,
+ * and the left and right elements of an indexed correspondence must not be modified. Changes of the tag of an
+ * indexed correspondence are tracked by the index itself.
+ */
+package class CorrespondenceIndex {
+	val Map<List<EObject>, Set<Correspondence>> correspondencesByEObjects = new HashMap
+	val Map<EObject, Set<Correspondence>> correspondencesByEObject = new IdentityHashMap
+	val Map<Pair<List<EObject>, String>, Map<Class<?>, Set<Correspondence>>> correspondencesByEObjectsAndTag = new HashMap
+	val tagChangeTracker = new TagChangeTracker(this)
+
+	long lookups
+	long lookupHits
+	long taggedLookups
+	long taggedLookupHits
+
+	def void add(Correspondence correspondence) {
+		correspondence.leftEObjects.addEntry(correspondence)
+		correspondence.rightEObjects.addEntry(correspondence)
+		correspondence.addTaggedEntries(correspondence.tag)
+		correspondence.eAdapters += tagChangeTracker
+	}
+
+	private def void addEntry(List<EObject> eObjects, Correspondence correspondence) {
+		correspondencesByEObjects.computeIfAbsent(List.copyOf(eObjects))[new LinkedHashSet] += correspondence
+		for (eObject : eObjects) {
+			correspondencesByEObject.computeIfAbsent(eObject)[new LinkedHashSet] += correspondence
+		}
+	}
+
+	private def void addTaggedEntries(Correspondence correspondence, String tag) {
+		for (eObjects : #[correspondence.leftEObjects, correspondence.rightEObjects]) {
+			val correspondencesByType = correspondencesByEObjectsAndTag.computeIfAbsent(List.copyOf(eObjects) -> tag) [
+				new HashMap
+			]
+			for (type : correspondence.eClass.instanceTypes) {
+				correspondencesByType.computeIfAbsent(type)[new LinkedHashSet] += correspondence
+			}
+		}
+	}
+
+	def void remove(Correspondence correspondence) {
+		correspondence.eAdapters -= tagChangeTracker
+		correspondence.leftEObjects.removeEntry(correspondence)
+		correspondence.rightEObjects.removeEntry(correspondence)
+		correspondence.removeTaggedEntries(correspondence.tag)
+	}
+
+	private def void removeEntry(List<EObject> eObjects, Correspondence correspondence) {
+		correspondencesByEObjects.removeFrom(eObjects, correspondence)
+		for (eObject : eObjects) {
+			correspondencesByEObject.removeFrom(eObject, correspondence)
+		}
+	}
+
+	private def void removeTaggedEntries(Correspondence correspondence, String tag) {
+		for (eObjects : #[correspondence.leftEObjects, correspondence.rightEObjects]) {
+			val key = eObjects -> tag
+			val correspondencesByType = correspondencesByEObjectsAndTag.get(key)
+			if (correspondencesByType !== null) {
+				for (type : correspondence.eClass.instanceTypes) {
+					correspondencesByType.removeFrom(type, correspondence)
+				}
+				if (correspondencesByType.empty) {
+					correspondencesByEObjectsAndTag.remove(key)
+				}
+			}
+		}
+	}
+
+	private static def <K> void removeFrom(Map<K, Set<Correspondence>> index, K key, Correspondence correspondence) {
+		val correspondences = index.get(key)
+		if (correspondences !== null) {
+			correspondences -= correspondence
+			if (correspondences.empty) {
+				index.remove(key)
+			}
+		}
+	}
+
+	/**
+	 * Returns the correspondences having exactly the given list of elements as their left or right elements.
+	 * The returned set is an unmodifiable view that reflects later changes to the index.
+	 */
+	def Set<Correspondence> getCorrespondences(List<EObject> eObjects) {
+		val correspondences = correspondencesByEObjects.get(eObjects).unmodifiableOrEmpty
+		lookups++
+		if (!correspondences.empty) lookupHits++
+		return correspondences
+	}
+
+	/**
+	 * Returns the correspondences having exactly the given list of elements as their left or right elements,
+	 * having the given tag and being instances of the given type. The returned iterable reflects later
+	 * changes to the index. Types that are not the instance class of a correspondence {@link EClass}, such as
+	 * implementation classes, are not indexed, so the correspondences with the tag are filtered by them.
+	 */
+	def Iterable<Correspondence> getCorrespondences(List<EObject> eObjects, String tag,
+		Class<? extends Correspondence> correspondenceType) {
+		val correspondencesByType = correspondencesByEObjectsAndTag.get(eObjects -> tag)
+		taggedLookups++
+		if (correspondencesByType === null) {
+			return emptySet
+		}
+		val Iterable<Correspondence> correspondences = if (correspondencesByType.containsKey(correspondenceType)) {
+			correspondencesByType.get(correspondenceType).unmodifiableOrEmpty
+		} else {
+			correspondencesByType.get(Correspondence).unmodifiableOrEmpty.filter[correspondenceType.isInstance(it)]
+		}
+		if (!correspondences.empty) taggedLookupHits++
+		return correspondences
+	}
+
+	/**
+	 * Returns the instance classes of the given correspondence {@link EClass} and its super types, i.e., all types
+	 * the correspondence can be looked up by.
+	 */
+	private static def Set<Class<?>> getInstanceTypes(EClass eClass) {
+		val Set<Class<?>> types = new HashSet
+		(#[eClass] + eClass.EAllSuperTypes).map[instanceClass].filterNull.forEach[types += it]
+		return types
+	}
+
+	/**
+	 * Returns the correspondences containing the given element in their left or right elements.
+	 * The returned set is an unmodifiable view that reflects later changes to the index.
+	 */
+	def Set<Correspondence> getCorrespondencesContaining(EObject eObject) {
+		correspondencesByEObject.get(eObject).unmodifiableOrEmpty
+	}
+
+	def CorrespondenceIndexStatistics getStatistics() {
+		new CorrespondenceIndexStatistics(correspondencesByEObjects.size, correspondencesByEObject.size,
+			correspondencesByEObjectsAndTag.size, lookups, lookupHits, taggedLookups, taggedLookupHits)
+	}
+
+	private static def Set<Correspondence> unmodifiableOrEmpty(Set<Correspondence> correspondences) {
+		if (correspondences === null) emptySet else Collections.unmodifiableSet(correspondences)
+	}
+
+	/**
+	 * Moves correspondences to the matching partition of the index when their tag is changed.
+	 */
+	private static class TagChangeTracker extends AdapterImpl {
+		val CorrespondenceIndex index
+
+		new(CorrespondenceIndex index) {
+			this.index = index
+		}
+
+		override notifyChanged(Notification notification) {
+			if (notification.feature == CorrespondencePackage.Literals.CORRESPONDENCE__TAG &&
+				notification.eventType == Notification.SET) {
+				val correspondence = notification.notifier as Correspondence
+				index.removeTaggedEntries(correspondence, notification.oldStringValue)
+				index.addTaggedEntries(correspondence, notification.newStringValue)
+			}
+		}
+	}
+}
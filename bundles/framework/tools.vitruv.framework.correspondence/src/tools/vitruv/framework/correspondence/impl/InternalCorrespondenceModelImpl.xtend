@@ -1,8 +1,12 @@
 package tools.vitruv.framework.correspondence.impl
 
+import java.io.IOException
+import java.util.Arrays
+import java.util.HashMap
 import java.util.HashSet
 import java.util.LinkedHashSet
 import java.util.List
+import java.util.Map
 import java.util.Set
 import java.util.function.Predicate
 import java.util.function.Supplier
@@ -12,6 +16,7 @@ import org.eclipse.emf.ecore.EClass
 import org.eclipse.emf.ecore.EObject
 import org.eclipse.emf.ecore.resource.Resource
 import org.eclipse.emf.ecore.resource.ResourceSet
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl
 import org.eclipse.emf.ecore.util.EcoreUtil
 import tools.vitruv.framework.correspondence.Correspondence
@@ -22,43 +27,180 @@ import tools.vitruv.framework.correspondence.Correspondences
 import tools.vitruv.framework.correspondence.InternalCorrespondenceModel
 
 import static com.google.common.base.Preconditions.checkState
+import static tools.vitruv.framework.util.AtomicFileUtil.saveAtomically
 
 import static extension edu.kit.ipd.sdq.commons.util.java.lang.IterableUtil.*
 import static extension edu.kit.ipd.sdq.commons.util.org.eclipse.emf.ecore.resource.ResourceSetUtil.loadOrCreateResource
 import static extension edu.kit.ipd.sdq.commons.util.org.eclipse.emf.ecore.resource.ResourceSetUtil.withGlobalFactories
 
+/**
+ * Correspondences are stored in the EMF binary resource format. Correspondences stored in XMI by earlier
+ * versions can still be loaded and are stored in the binary format on the next save.
+ * <p>
+ * Loaded correspondences are resolved lazily: their elements are only resolved, and thus their models only
+ * loaded, when correspondences of an element of one of these models are requested, or when the
+ * correspondences are saved while one of these models is loaded.
+ * <p>
+ * Correspondences are removed on save if one of their elements is not contained in a resource anymore. To avoid
+ * checking all correspondences on every save, only the correspondences created since the last save, the ones of
+ * registered removed elements, and loaded ones that are resolved on save are checked. Elements that disappear
+ * because their resource is removed from the resource set or unloaded are not removed by a change, so they
+ * have to be registered or {@link #removeCorrespondencesOfRemovedElements} has to be called.
+ */
 class InternalCorrespondenceModelImpl implements InternalCorrespondenceModel {
 	static val logger = Logger.getLogger(InternalCorrespondenceModelImpl)
+	// the signature "\211emf\n\r\032\n" at the beginning of each file written by a BinaryResourceImpl
+	static val byte[] BINARY_RESOURCE_SIGNATURE = #[137 as byte, 101 as byte, 109 as byte, 102 as byte, 10 as byte,
+		13 as byte, 26 as byte, 10 as byte]
 	val Correspondences correspondences
 	val Resource correspondencesResource
+	val CorrespondenceIndex correspondenceIndex = new CorrespondenceIndex
+	// the unresolved correspondences with the URIs of the resources they are registered for
+	val Map<Correspondence, Set<URI>> unresolvedCorrespondences = new HashMap
+	val Map<URI, Set<Correspondence>> unresolvedCorrespondencesByResource = new HashMap
+	// the correspondences that may refer to removed elements and are thus checked on the next save
+	val Set<Correspondence> removalCandidates = new LinkedHashSet
+	var ResourceSet resolveIn
 
 	new(URI resourceUri) {
 		this.correspondences = CorrespondenceFactory::eINSTANCE.createCorrespondences()
-		this.correspondencesResource = if (resourceUri !== null)
-			new ResourceSetImpl().withGlobalFactories.createResource(resourceUri) => [
+		this.correspondencesResource = if (resourceUri !== null) {
+			val resource = new BinaryResourceImpl(resourceUri)
+			new ResourceSetImpl().withGlobalFactories.resources += resource
+			resource => [
 				contents += correspondences
+				trackingModification = true
 			]
+		}
 	}
 
 	override loadSerializedCorrespondences(ResourceSet resolveIn) {
 		checkState(correspondencesResource !== null,
 			"Correspondences resource must be specified to load existing correspondences")
-		val loadedResource = new ResourceSetImpl().withGlobalFactories.loadOrCreateResource(correspondencesResource.URI)
+		this.resolveIn = resolveIn
+		val loadedResource = loadCorrespondencesResource(correspondencesResource.URI)
 		if (!loadedResource.contents.empty) {
 			val loadedCorrespondences = loadedResource.contents.get(0) as Correspondences
-			for (correspondence : loadedCorrespondences.correspondences) {
-				correspondence.leftEObjects => [
-					val resolvedObjects = it.resolve(resolveIn)
-					it.clear()
-					it += resolvedObjects	
-				]
-				correspondence.rightEObjects => [
-					val resolvedObjects = it.resolve(resolveIn)
-					it.clear()
-					it += resolvedObjects	
-				]
+			val newCorrespondences = List.copyOf(loadedCorrespondences.correspondences)
+			this.correspondences.correspondences += newCorrespondences
+			for (correspondence : newCorrespondences) {
+				correspondence.markUnresolved()
+			}
+			correspondencesResource.modified = false
+		}
+	}
+
+	/**
+	 * Registers the given correspondence, which is not indexed, to be resolved and indexed when correspondences
+	 * of elements in one of the resources it refers to are requested.
+	 */
+	private def void markUnresolved(Correspondence correspondence) {
+		val referencedResources = (correspondence.leftEObjects + correspondence.rightEObjects).map [
+			EcoreUtil.getURI(it).trimFragment
+		].toSet
+		unresolvedCorrespondences.put(correspondence, referencedResources)
+		for (referencedResource : referencedResources) {
+			unresolvedCorrespondencesByResource.computeIfAbsent(referencedResource)[new LinkedHashSet] +=
+				correspondence
+		}
+		if (referencedResources.empty) {
+			correspondence.resolveAndIndex()
+		}
+	}
+
+	override releaseCorrespondencesOf(Resource resource) {
+		if (resolveIn === null) {
+			resolveIn = resource.resourceSet
+		}
+		val correspondencesToRelease = new LinkedHashSet<Correspondence>
+		val contents = resource.allContents
+		while (contents.hasNext) {
+			correspondencesToRelease += correspondenceIndex.getCorrespondencesContaining(contents.next)
+		}
+		for (correspondence : correspondencesToRelease) {
+			correspondenceIndex.remove(correspondence)
+			correspondence.markUnresolved()
+		}
+	}
+
+	override registerRemovedElements(Iterable<? extends EObject> eObjects) {
+		for (eObject : eObjects) {
+			removalCandidates += correspondenceIndex.getCorrespondencesContaining(eObject)
+			val contents = eObject.eAllContents
+			while (contents.hasNext) {
+				removalCandidates += correspondenceIndex.getCorrespondencesContaining(contents.next)
 			}
-			this.correspondences.correspondences += loadedCorrespondences.correspondences
+		}
+	}
+
+	private static def Resource loadCorrespondencesResource(URI uri) {
+		val resourceSet = new ResourceSetImpl().withGlobalFactories
+		if (resourceSet.URIConverter.exists(uri, null) && !resourceSet.isBinaryResource(uri)) {
+			return resourceSet.loadOrCreateResource(uri)
+		}
+		val resource = new BinaryResourceImpl(uri)
+		resourceSet.resources += resource
+		if (resourceSet.URIConverter.exists(uri, null)) {
+			resource.load(null)
+		}
+		return resource
+	}
+
+	private static def boolean isBinaryResource(ResourceSet resourceSet, URI uri) throws IOException {
+		val input = resourceSet.URIConverter.createInputStream(uri)
+		try {
+			return Arrays.equals(input.readNBytes(BINARY_RESOURCE_SIGNATURE.length), BINARY_RESOURCE_SIGNATURE)
+		} finally {
+			input.close()
+		}
+	}
+
+	/**
+	 * Resolves the loaded correspondences referring to elements in the resources of the given elements,
+	 * so that they can be found in the index.
+	 */
+	private def void resolveCorrespondencesFor(Iterable<EObject> eObjects) {
+		if (unresolvedCorrespondences.empty) {
+			return
+		}
+		for (eObject : eObjects) {
+			eObject.eResource?.URI?.resolveCorrespondencesReferencing()
+		}
+	}
+
+	private def void resolveCorrespondencesReferencing(URI resourceUri) {
+		val correspondencesToResolve = unresolvedCorrespondencesByResource.remove(resourceUri)
+		if (correspondencesToResolve !== null) {
+			val wasModified = modified
+			correspondencesToResolve.forEach[resolveAndIndex()]
+			// resolving elements does not change the persisted correspondences
+			correspondencesResource?.setModified(wasModified)
+		}
+	}
+
+	private def void resolveAndIndex(Correspondence correspondence) {
+		val referencedResources = unresolvedCorrespondences.remove(correspondence)
+		if (referencedResources !== null) {
+			for (referencedResource : referencedResources) {
+				val correspondencesOfResource = unresolvedCorrespondencesByResource.get(referencedResource)
+				if (correspondencesOfResource !== null) {
+					correspondencesOfResource -= correspondence
+					if (correspondencesOfResource.empty) {
+						unresolvedCorrespondencesByResource.remove(referencedResource)
+					}
+				}
+			}
+			correspondence.leftEObjects => [
+				val resolvedObjects = it.resolve(resolveIn)
+				it.clear()
+				it += resolvedObjects	
+			]
+			correspondence.rightEObjects => [
+				val resolvedObjects = it.resolve(resolveIn)
+				it.clear()
+				it += resolvedObjects	
+			]
+			correspondenceIndex.add(correspondence)
 		}
 	}
 	
@@ -71,24 +213,75 @@ class InternalCorrespondenceModelImpl implements InternalCorrespondenceModel {
 	}
 
 	override save() {
-		removeCorrespondencesForRemovedElements()
-		this.correspondencesResource?.save(null)
+		resolveCorrespondencesOfLoadedResources()
+		removeCorrespondencesForRemovedElements(removalCandidates)
+		removalCandidates.clear()
+		if (correspondencesResource !== null) {
+			saveAtomically(correspondencesResource)
+		}
+	}
+
+	override isModified() {
+		return correspondencesResource !== null && correspondencesResource.modified
 	}
 	
-	private def void removeCorrespondencesForRemovedElements() {
-		val iterator = correspondences.correspondences.iterator
-		while (iterator.hasNext()) {
-			val element = iterator.next()
-			if (element.leftEObjects.exists[!isInManagedResource] || element.rightEObjects.exists[!isInManagedResource]) {
-				checkState(element.leftEObjects.forall[!isInManagedResource] || element.leftEObjects.forall[!isInManagedResource],
+	/**
+	 * Resolves the loaded correspondences referring to elements in resources that are loaded, as these elements
+	 * may have been removed. Correspondences referring to resources that are not loaded cannot be affected.
+	 * Released correspondences whose elements in a loaded resource are still contained in it are not resolved,
+	 * so that saving does not load the resources they were released for again.
+	 */
+	private def void resolveCorrespondencesOfLoadedResources() {
+		if (unresolvedCorrespondences.empty) {
+			return
+		}
+		val wasModified = modified
+		for (resource : List.copyOf(resolveIn.resources)) {
+			if (resource.loaded) {
+				val correspondencesOfResource = unresolvedCorrespondencesByResource.get(resource.URI)
+				if (correspondencesOfResource !== null) {
+					for (correspondence : List.copyOf(correspondencesOfResource)) {
+						if (correspondence.mayReferToRemovedElementsOf(resource.URI)) {
+							correspondence.resolveAndIndex()
+							removalCandidates += correspondence
+						}
+					}
+				}
+			}
+		}
+		correspondencesResource?.setModified(wasModified)
+	}
+
+	private static def boolean mayReferToRemovedElementsOf(Correspondence correspondence, URI resourceUri) {
+		(correspondence.leftEObjects + correspondence.rightEObjects).exists [
+			if (eIsProxy) EcoreUtil.getURI(it).trimFragment == resourceUri else !isInManagedResource
+		]
+	}
+
+	override removeCorrespondencesOfRemovedElements() {
+		removeCorrespondencesForRemovedElements(correspondences.correspondences)
+	}
+
+	private def Set<Correspondence> removeCorrespondencesForRemovedElements(Iterable<Correspondence> candidates) {
+		val removedCorrespondences = new LinkedHashSet<Correspondence>
+		for (element : candidates) {
+			if (element.eContainer === correspondences && !unresolvedCorrespondences.containsKey(element) &&
+				(element.leftEObjects.exists[!isInManagedResource] || element.rightEObjects.exists[!isInManagedResource])) {
+				checkState(element.leftEObjects.forall[!isInManagedResource] || element.rightEObjects.forall[!isInManagedResource],
 					"Correspondence between %s and %s contains elements %s that are not contained in a resource anymore.",
 					element.leftEObjects, element.rightEObjects, (element.leftEObjects + element.rightEObjects).filter[!isInManagedResource])
-				iterator.remove()
+				removedCorrespondences += element
+				correspondenceIndex.remove(element)
 				if (logger.traceEnabled) {
 					logger.trace('''Correspondence between «element.leftEObjects» and «element.rightEObjects» has been removed as all its elements have been removed from resources.''')
 				}
 			}
 		}
+		if (!removedCorrespondences.empty) {
+			// removing all at once only traverses the correspondences once
+			correspondences.correspondences.removeAll(removedCorrespondences)
+		}
+		return removedCorrespondences
 	}
 	
 	private def static isInManagedResource(EObject object) {
@@ -115,11 +308,15 @@ class InternalCorrespondenceModelImpl implements InternalCorrespondenceModel {
 			it.tag = tag
 		]
 		this.correspondences.correspondences += correspondence
+		correspondenceIndex.add(correspondence)
+		// the elements may not be contained in a resource or be removed before the next save
+		removalCandidates += correspondence
 		return correspondence
 	}
 
 	def private removeCorrespondence(Correspondence correspondence) {
 		EcoreUtil.remove(correspondence)
+		correspondenceIndex.remove(correspondence)
 	}
 
 	override <C extends Correspondence> Set<Correspondence> removeCorrespondencesBetween(Class<C> correspondenceType,
@@ -154,15 +351,18 @@ class InternalCorrespondenceModelImpl implements InternalCorrespondenceModel {
 
 	override <C extends Correspondence> Set<C> getCorrespondences(Class<C> correspondenceType,
 		Predicate<C> correspondencesFilter, List<EObject> eObjects, String tag) {
-		return eObjects.getCorrespondences().filter(correspondenceType).filter(correspondencesFilter).filter [
-			tag === null || it.tag == tag
-		].toSet
+		resolveCorrespondencesFor(eObjects)
+		val candidates = if (tag === null) {
+			correspondenceIndex.getCorrespondences(eObjects)
+		} else {
+			correspondenceIndex.getCorrespondences(eObjects, tag, correspondenceType)
+		}
+		return candidates.filter(correspondenceType).filter(correspondencesFilter).toSet
 	}
 
 	private def Set<Correspondence> getCorrespondences(List<EObject> eObjects) {
-		return this.correspondences.correspondences.filter [ correspondence |
-			eObjects == correspondence.leftEObjects || eObjects == correspondence.rightEObjects
-		].toSet
+		resolveCorrespondencesFor(eObjects)
+		return correspondenceIndex.getCorrespondences(eObjects)
 	}
 
 	override <C extends Correspondence> Set<List<EObject>> getCorrespondingEObjects(Class<C> correspondenceType,
@@ -188,6 +388,10 @@ class InternalCorrespondenceModelImpl implements InternalCorrespondenceModel {
 		return correspondences !== null && correspondences.size() > 0
 	}
 
+	override getIndexStatistics() {
+		return correspondenceIndex.statistics
+	}
+
 	override <V extends CorrespondenceModelView<?>> getView(
 		CorrespondenceModelViewFactory<V> correspondenceModelViewFactory) {
 		return correspondenceModelViewFactory.createCorrespondenceModelView(this)
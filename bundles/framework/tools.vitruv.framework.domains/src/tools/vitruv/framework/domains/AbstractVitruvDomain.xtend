@@ -103,4 +103,8 @@ abstract class AbstractVitruvDomain implements VitruvDomain {
 		false
 	}
 
+	override shouldCompactChanges() {
+		false
+	}
+
 }
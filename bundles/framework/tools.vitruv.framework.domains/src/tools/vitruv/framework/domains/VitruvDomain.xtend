@@ -31,4 +31,12 @@ interface VitruvDomain {
 	 * specifications.
 	 */
 	def boolean shouldTransitivelyPropagateChanges()
+
+	/**
+	 * Whether changes made to models of this domain should be compacted before
+	 * they are propagated, i.e. whether changes that are cancelled or overwritten
+	 * by later changes of the same transaction should be removed. This must not
+	 * be done if change propagation depends on such intermediate changes.
+	 */
+	def boolean shouldCompactChanges()
 }
@@ -0,0 +1,104 @@
+package tools.vitruv.framework.util
+
+import edu.kit.ipd.sdq.activextendannotations.Utility
+import java.io.ByteArrayOutputStream
+import java.io.IOException
+import java.nio.file.AtomicMoveNotSupportedException
+import java.nio.file.Files
+import java.nio.file.Path
+import org.eclipse.emf.ecore.resource.Resource
+
+import static java.nio.charset.StandardCharsets.UTF_8
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING
+
+@Utility
+class AtomicFileUtil {
+	static val TEMPORARY_FILE_SUFFIX = ".tmp"
+
+	/**
+	 * Saves the given {@link Resource} such that its file is either completely replaced or left untouched.
+	 * The resource is serialized to memory first and then written with {@link #writeAtomically}.
+	 * Resources that are not stored in the local file system are saved as usual.
+	 *
+	 * @param resource - the {@link Resource} to save
+	 * @throws IOException if the resource could not be serialized or written
+	 */
+	def static void saveAtomically(Resource resource) throws IOException {
+		if (!resource.URI.isFile) {
+			resource.save(null)
+			return
+		}
+		writeAtomically(resource, serialize(resource))
+	}
+
+	/**
+	 * Serializes the given {@link Resource} to memory, such that it can be written with
+	 * {@link #writeAtomically(Resource, byte[])}. The resource is only read and its modification state is
+	 * not changed, so this can be done on another thread than writing the resource.
+	 *
+	 * @param resource - the {@link Resource} to serialize
+	 * @return the serialized content of the resource
+	 * @throws IOException if the resource could not be serialized
+	 */
+	def static byte[] serialize(Resource resource) throws IOException {
+		val buffer = new ByteArrayOutputStream
+		resource.save(buffer, null)
+		return buffer.toByteArray
+	}
+
+	/**
+	 * Writes the given serialized content of the given {@link Resource}, which must be stored in the local
+	 * file system, with {@link #writeAtomically(Path, byte[])} and marks the resource as not modified.
+	 *
+	 * @param resource - the {@link Resource} to write
+	 * @param content - the content of the resource as returned by {@link #serialize(Resource)}
+	 * @throws IOException if the file could not be written
+	 */
+	def static void writeAtomically(Resource resource, byte[] content) throws IOException {
+		writeAtomically(Path.of(resource.URI.toFileString), content)
+		resource.modified = false
+	}
+
+	/**
+	 * Writes the given lines to the given file like {@link Files#write(Path, Iterable, OpenOption...)}
+	 * does, but atomically as described in {@link #writeAtomically(Path, byte[])}.
+	 *
+	 * @param path - the file to write
+	 * @param lines - the lines to write, each of which is terminated with the line separator
+	 * @throws IOException if the file could not be written
+	 */
+	def static void writeAtomically(Path path, Iterable<? extends CharSequence> lines) throws IOException {
+		val content = new StringBuilder
+		for (line : lines) {
+			content.append(line).append(System.lineSeparator)
+		}
+		writeAtomically(path, content.toString.getBytes(UTF_8))
+	}
+
+	/**
+	 * Writes the given content to the given file by writing it to a temporary file in the same folder first
+	 * and then moving that file to the given one. Thus, readers never observe a partially written file and a
+	 * failing write leaves the previous content of the file intact. If the file system does not support
+	 * atomic moves, the file is replaced by an ordinary move.
+	 *
+	 * @param path - the file to write
+	 * @param content - the content to write
+	 * @throws IOException if the file could not be written
+	 */
+	def static void writeAtomically(Path path, byte[] content) throws IOException {
+		val folder = path.toAbsolutePath.parent
+		Files.createDirectories(folder)
+		val temporaryFile = Files.createTempFile(folder, path.fileName.toString, TEMPORARY_FILE_SUFFIX)
+		try {
+			Files.write(temporaryFile, content)
+			try {
+				Files.move(temporaryFile, path, REPLACE_EXISTING, ATOMIC_MOVE)
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporaryFile, path, REPLACE_EXISTING)
+			}
+		} finally {
+			Files.deleteIfExists(temporaryFile)
+		}
+	}
+}
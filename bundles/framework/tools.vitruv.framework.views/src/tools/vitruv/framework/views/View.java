@@ -1,6 +1,7 @@
 package tools.vitruv.framework.views;
 
 import java.util.Collection;
+import java.util.stream.Stream;
 
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
@@ -35,6 +36,31 @@ public interface View extends AutoCloseable {
 		return FluentIterable.from(getRootObjects()).filter(clazz).toList();
 	};
 
+	/**
+	 * Provides the root model elements of this view as a lazily evaluated
+	 * {@link Stream}, such that they can be processed, filtered or paged without
+	 * collecting all of them first. The stream must be consumed before the view is
+	 * modified, updated or closed.
+	 * 
+	 * @throws IllegalStateException if called on a closed view.
+	 * @see View#isClosed()
+	 */
+	default Stream<EObject> streamRootObjects() {
+		return getRootObjects().stream();
+	}
+
+	/**
+	 * Provides all root model elements of this view that conform to a certain type
+	 * as a lazily evaluated {@link Stream}.
+	 * 
+	 * @param clazz is requested root element type.
+	 * @throws IllegalStateException if called on a closed view.
+	 * @see View#streamRootObjects()
+	 */
+	default <T> Stream<T> streamRootObjects(Class<T> clazz) {
+		return streamRootObjects().filter(clazz::isInstance).map(clazz::cast);
+	}
+
 	/**
 	 * Returns whether the view was modified.
 	 */
@@ -12,4 +12,27 @@ class ViewTypeFactory {
 	static def ViewType<? extends ViewSelector> createIdentityMappingViewType(String name) {
 		new IdentityMappingViewType(name)
 	}
+
+	/**
+	 * Creates a view type like {@link #createIdentityMappingViewType(String)}, whose views are updated
+	 * by applying the changes propagated in the view source since their last update to the copied
+	 * elements rather than copying all selected elements again.
+	 */
+	static def ViewType<? extends ViewSelector> createIncrementallyUpdatedIdentityMappingViewType(String name) {
+		new IdentityMappingViewType(name, true)
+	}
+
+	/**
+	 * Creates a view type like {@link #createIdentityMappingViewType(String)}, whose views share the
+	 * selected elements with the view source until they are modified. As long as a view shares them,
+	 * {@link View#getRootObjects()} and {@link View#streamRootObjects()} return the elements of the view
+	 * source, which must not be modified. To modify the elements, the view has to be modified in a way
+	 * that copies them first, such as by requesting a trait for committing changes, and the root objects
+	 * have to be retrieved again afterwards. If a shared element is modified other than by propagating
+	 * changes in the view source, the next access to the root objects of the view throws an
+	 * {@link IllegalStateException}, but the view source has been modified nonetheless.
+	 */
+	static def ViewType<? extends ViewSelector> createCopyOnWriteIdentityMappingViewType(String name) {
+		new IdentityMappingViewType(name, false, true)
+	}
 }
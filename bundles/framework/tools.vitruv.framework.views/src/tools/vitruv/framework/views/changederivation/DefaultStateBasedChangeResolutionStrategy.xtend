@@ -9,6 +9,8 @@ import org.eclipse.emf.compare.scope.DefaultComparisonScope
 import org.eclipse.emf.ecore.resource.Resource
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl
 import org.eclipse.emf.ecore.util.EcoreUtil
+import org.eclipse.emf.ecore.util.EcoreUtil.Copier
+import tools.vitruv.framework.change.description.VitruviusChange
 import tools.vitruv.framework.change.recording.ChangeRecorder
 import org.eclipse.emf.ecore.resource.ResourceSet
 import static com.google.common.base.Preconditions.checkArgument
@@ -20,13 +22,13 @@ import static extension edu.kit.ipd.sdq.commons.util.org.eclipse.emf.ecore.resou
  * @author Timur Saglam
  */
 class DefaultStateBasedChangeResolutionStrategy implements StateBasedChangeResolutionStrategy {
-	private def checkNoProxies(Resource resource, String stateNotice) {
+	protected def checkNoProxies(Resource resource, String stateNotice) {
 		val proxies = resource.referencedProxies
 		checkArgument(proxies.empty, "%s '%s' should not contain proxies, but contains the following: %s", stateNotice,
 			resource.URI, String.join(", ", proxies.map[toString]))
 	}
 
-	override getChangeSequenceBetween(Resource newState, Resource oldState) {
+	override VitruviusChange getChangeSequenceBetween(Resource newState, Resource oldState) {
 		checkArgument(oldState !== null && newState !== null, "old state or new state must not be null!")
 		newState.checkNoProxies("new state")
 		oldState.checkNoProxies("old state")
@@ -64,7 +66,7 @@ class DefaultStateBasedChangeResolutionStrategy implements StateBasedChangeResol
 		]
 	}
 
-	private def <T extends Notifier> record(Resource resource, ()=>void function) {
+	protected def <T extends Notifier> record(Resource resource, ()=>void function) {
 		try (val changeRecorder = new ChangeRecorder(resource.resourceSet)) {
 			changeRecorder.beginRecording
 			changeRecorder.addToRecording(resource)
@@ -90,9 +92,18 @@ class DefaultStateBasedChangeResolutionStrategy implements StateBasedChangeResol
 	 * Creates a new resource set, creates a resource and copies the content of the orignal resource.
 	 */
 	private def Resource copyInto(Resource resource, ResourceSet resourceSet) {
+		return resource.copyInto(resourceSet, new Copier)
+	}
+
+	/**
+	 * Creates a resource in the given resource set and copies the content of the original resource with
+	 * the given copier, which afterwards maps the original elements to their copies.
+	 */
+	protected def Resource copyInto(Resource resource, ResourceSet resourceSet, Copier copier) {
 		val uri = resource.URI
 		val copy = resourceSet.resourceFactoryRegistry.getFactory(uri).createResource(uri)
-		val elementsCopy = EcoreUtil.copyAll(resource.contents)
+		val elementsCopy = copier.copyAll(resource.contents)
+		copier.copyReferences()
 		elementsCopy.forEach[eAdapters.clear]
 		copy.contents.addAll(elementsCopy)
 		resourceSet.resources += copy
@@ -0,0 +1,53 @@
+package tools.vitruv.framework.views.changederivation
+
+import java.util.Map
+import org.eclipse.emf.ecore.EObject
+import org.eclipse.emf.ecore.resource.Resource
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl
+import org.eclipse.emf.ecore.util.EcoreUtil.Copier
+import tools.vitruv.framework.change.description.VitruviusChange
+
+import static com.google.common.base.Preconditions.checkArgument
+
+/**
+ * This strategy for diff based state changes matches the elements of the new and the old state by their
+ * identity instead of comparing the states with EMFCompare. Elements are matched by a given mapping from the
+ * elements of the new state to the ones of the old state, such as the one returned by the
+ * {@link tools.vitruv.framework.views.util.ResourceCopier ResourceCopier} when creating the old state,
+ * then by their ID attribute and, if no mapping is given, by their position in their container.
+ * Subtrees with the same structural hash in both states are compared in detail and skipped if they are equal,
+ * so that only the actual differences are applied to a copy of the old state and recorded.
+ * Resources containing feature maps are compared with the {@link DefaultStateBasedChangeResolutionStrategy}.
+ */
+class IdentityBasedStateChangeResolutionStrategy extends DefaultStateBasedChangeResolutionStrategy {
+
+	override VitruviusChange getChangeSequenceBetween(Resource newState, Resource oldState) {
+		return getChangeSequenceBetween(newState, oldState, emptyMap)
+	}
+
+	/**
+	 * Resolves the state-based delta of two resources like {@link #getChangeSequenceBetween(Resource, Resource)},
+	 * matching the elements of both states by the given mapping.
+	 */
+	override VitruviusChange getChangeSequenceBetween(Resource newState, Resource oldState,
+		Map<EObject, EObject> newToOldElements) {
+		checkArgument(oldState !== null && newState !== null, "old state or new state must not be null!")
+		checkArgument(newToOldElements !== null, "element mapping must not be null!")
+		newState.checkNoProxies("new state")
+		oldState.checkNoProxies("old state")
+		val monitoredResourceSet = new ResourceSetImpl()
+		val oldToCurrentElements = new Copier
+		val currentStateCopy = oldState.copyInto(monitoredResourceSet, oldToCurrentElements)
+		val stateDiff = new IdentityBasedStateDiff(newState, currentStateCopy, oldState, newToOldElements,
+			oldToCurrentElements)
+		if (!stateDiff.isSupported) {
+			return super.getChangeSequenceBetween(newState, oldState)
+		}
+		return currentStateCopy.record [
+			if (oldState.URI != newState.URI) {
+				currentStateCopy.URI = newState.URI
+			}
+			stateDiff.applyToCurrentState()
+		]
+	}
+}
@@ -0,0 +1,378 @@
+package tools.vitruv.framework.views.changederivation
+
+import java.util.HashMap
+import java.util.HashSet
+import java.util.List
+import java.util.Map
+import java.util.Objects
+import java.util.Set
+import org.eclipse.emf.ecore.EAttribute
+import org.eclipse.emf.ecore.EObject
+import org.eclipse.emf.ecore.EReference
+import org.eclipse.emf.ecore.EStructuralFeature
+import org.eclipse.emf.ecore.resource.Resource
+import org.eclipse.emf.ecore.resource.ResourceSet
+import org.eclipse.emf.ecore.util.EcoreUtil
+import org.eclipse.emf.ecore.util.EcoreUtil.EqualityHelper
+import org.eclipse.emf.ecore.util.FeatureMapUtil
+
+/**
+ * Applies the differences between the new state of a resource and the current state, which is a copy of the
+ * old state, to the current state, such that they can be recorded. Elements of both states are matched by a
+ * mapping of new elements to old elements and the mapping of old elements to their copies in the current state,
+ * then by their ID attribute and, if no mapping is given, by their position in their container. Matched elements
+ * whose subtrees have the same structural hash are compared for equality and, if equal, are considered unchanged
+ * and skipped. Different subtrees may have the same hash, so the hash only preselects the subtrees to compare.
+ */
+package class IdentityBasedStateDiff {
+	static val long HASH_MULTIPLIER = 1099511628211L
+
+	val Resource newState
+	val Resource currentState
+	val ResourceSet oldResourceSet
+	val Map<EObject, EObject> newToOldElements
+	val Map<EObject, EObject> oldToCurrentElements
+	val Map<EObject, EObject> newToCurrentElements = new HashMap
+	val Set<EObject> matchedCurrentElements = new HashSet
+	val Set<EObject> createdElements = new HashSet
+	val Map<EObject, EObject> externalElements = new HashMap
+	val Map<EObject, Long> structuralHashes = new HashMap
+	val Map<EObject, Boolean> unchangedElements = new HashMap
+	var boolean supported = true
+
+	/**
+	 * @param newState the new state of the resource
+	 * @param currentState the copy of the old state to apply the differences to
+	 * @param oldState the old state of the resource
+	 * @param newToOldElements maps elements of the new state to their counterparts in the old state
+	 * @param oldToCurrentElements maps elements of the old state to their copies in the current state
+	 */
+	new(Resource newState, Resource currentState, Resource oldState, Map<EObject, EObject> newToOldElements,
+		Map<EObject, EObject> oldToCurrentElements) {
+		this.newState = newState
+		this.currentState = currentState
+		this.oldResourceSet = oldState.resourceSet
+		this.newToOldElements = newToOldElements
+		this.oldToCurrentElements = oldToCurrentElements
+		matchElements()
+		newState.contents.forEach[computeStructuralHash(true)]
+		currentState.contents.forEach[computeStructuralHash(false)]
+	}
+
+	/**
+	 * Returns whether the differences between the states can be determined, which is not the case if
+	 * they contain feature maps.
+	 */
+	def boolean isSupported() {
+		return supported
+	}
+
+	/**
+	 * Applies the differences to the current state. Containment structure and attributes are applied first,
+	 * such that all elements exist when non-containment references are applied afterwards.
+	 */
+	def void applyToCurrentState() {
+		synchronizeList(currentState.contents, newState.contents.map[getOrCreateCurrentElement].toList)
+		newState.contents.forEach[applyContainmentsAndAttributes]
+		newState.contents.forEach[applyNonContainmentReferences]
+	}
+
+	private def void matchElements() {
+		val unmatchedElementsById = new HashMap<String, EObject>
+		for (newElement : newState.allContents.toIterable) {
+			val currentElement = oldToCurrentElements.get(newToOldElements.get(newElement))
+			if (currentElement === null || !match(newElement, currentElement)) {
+				val id = EcoreUtil.getID(newElement)
+				if (id !== null) {
+					unmatchedElementsById.putIfAbsent(id, newElement)
+				}
+			}
+		}
+		if (!unmatchedElementsById.empty) {
+			for (currentElement : currentState.allContents.toIterable.filter[!matchedCurrentElements.contains(it)]) {
+				val newElement = unmatchedElementsById.remove(EcoreUtil.getID(currentElement))
+				if (newElement !== null) {
+					match(newElement, currentElement)
+				}
+			}
+		}
+		if (newToOldElements.empty) {
+			matchByPosition(newState.contents, currentState.contents)
+		}
+	}
+
+	private def boolean match(EObject newElement, EObject currentElement) {
+		if (newElement.eClass !== currentElement.eClass || matchedCurrentElements.contains(currentElement)) {
+			return false
+		}
+		newToCurrentElements.put(newElement, currentElement)
+		matchedCurrentElements += currentElement
+		return true
+	}
+
+	/**
+	 * Matches unmatched elements without ID at the same position in matched containers.
+	 */
+	private def void matchByPosition(List<EObject> newElements, List<EObject> currentElements) {
+		for (index : 0 ..< Math.min(newElements.size, currentElements.size)) {
+			val newElement = newElements.get(index)
+			val currentElement = currentElements.get(index)
+			if (!newToCurrentElements.containsKey(newElement) && EcoreUtil.getID(newElement) === null &&
+				EcoreUtil.getID(currentElement) === null) {
+				match(newElement, currentElement)
+			}
+		}
+		for (newElement : newElements) {
+			val currentElement = newToCurrentElements.get(newElement)
+			if (currentElement !== null) {
+				for (containment : newElement.eClass.EAllContainments.filter[relevant]) {
+					matchByPosition(newElement.getValues(containment).filter(EObject).toList,
+						currentElement.getValues(containment).filter(EObject).toList)
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes a hash of the attribute values and references of the given element and its contained elements.
+	 * Contained and referenced elements of the new state are represented by their counterparts in the current
+	 * state, such that the hashes of matched elements are equal if their subtrees are equal.
+	 */
+	private def long computeStructuralHash(EObject element, boolean inNewState) {
+		var hash = element.eClass.hashCode as long
+		for (feature : element.eClass.EAllStructuralFeatures.filter[relevant]) {
+			if (FeatureMapUtil.isFeatureMap(feature)) {
+				supported = false
+			}
+			if (feature.unsettable) {
+				hash = hash.combine(if(element.eIsSet(feature)) 1 else 0)
+			}
+			switch (feature) {
+				EReference case feature.containment:
+					for (child : element.getValues(feature).filter(EObject)) {
+						hash = hash.combine(System.identityHashCode(child.getComparisonElement(inNewState)))
+						hash = hash.combine(child.computeStructuralHash(inNewState))
+					}
+				EReference:
+					for (target : element.getValues(feature).filter(EObject)) {
+						hash = hash.combine(System.identityHashCode(target.getComparisonElement(inNewState)))
+					}
+				EAttribute:
+					hash = hash.combine(Objects.hashCode(element.eGet(feature)))
+			}
+		}
+		structuralHashes.put(element, hash)
+		return hash
+	}
+
+	private static def long combine(long hash, long value) {
+		return hash * HASH_MULTIPLIER + value
+	}
+
+	private def EObject getComparisonElement(EObject element, boolean inNewState) {
+		return if(inNewState) element.currentStateCounterpart else element
+	}
+
+	/**
+	 * Returns the element of the current state for the given element of the new state. Elements of other
+	 * resources are represented by their counterparts in the old state if they exist, as the current state
+	 * references them like the old state.
+	 */
+	private def EObject getCurrentStateCounterpart(EObject newElement) {
+		if (newElement.eResource === newState) {
+			return newToCurrentElements.get(newElement) ?: newElement
+		}
+		return externalElements.computeIfAbsent(newElement) [
+			val oldElement = newToOldElements.get(it) ?: oldResourceSet?.getEObject(EcoreUtil.getURI(it), false)
+			if (oldElement !== null && oldElement.eResource !== null &&
+				oldToCurrentElements.get(oldElement) === null) oldElement else it
+		]
+	}
+
+	private def EObject getOrCreateCurrentElement(EObject newElement) {
+		return newToCurrentElements.computeIfAbsent(newElement) [
+			val currentElement = EcoreUtil.create(eClass)
+			for (attribute : eClass.EAllAttributes.filter[relevant && newElement.eIsSet(it)]) {
+				currentElement.eSet(attribute, newElement.eGet(attribute))
+			}
+			createdElements += newElement
+			currentElement
+		]
+	}
+
+	/**
+	 * Returns whether the subtree of the given element equals the one of its counterpart in the current state.
+	 * Only subtrees with the same structural hash are compared, and the result is kept for applying the
+	 * non-containment references.
+	 */
+	private def boolean isUnchanged(EObject newElement) {
+		return unchangedElements.computeIfAbsent(newElement) [
+			val currentElement = newToCurrentElements.get(it)
+			!createdElements.contains(it) && structuralHashes.get(it) !== null &&
+				structuralHashes.get(it) == structuralHashes.get(currentElement) &&
+				createEqualityHelper().equals(it, currentElement)
+		]
+	}
+
+	/**
+	 * Creates a helper comparing elements of the new state with elements of the current state like the structural
+	 * hash does, i.e., contained and referenced elements of the new state have to be the counterparts of the ones
+	 * of the current state and contained elements have to be equal as well.
+	 */
+	private def EqualityHelper createEqualityHelper() {
+		return new EqualityHelper {
+			override protected haveEqualFeature(EObject newElement, EObject currentElement,
+				EStructuralFeature feature) {
+				if (!isRelevant(feature)) {
+					return true
+				}
+				if (!(feature instanceof EReference)) {
+					return super.haveEqualFeature(newElement, currentElement, feature)
+				}
+				val newValues = getValues(newElement, feature).filter(EObject).toList
+				val currentValues = getValues(currentElement, feature).filter(EObject).toList
+				if (newElement.eIsSet(feature) != currentElement.eIsSet(feature) ||
+					newValues.size != currentValues.size) {
+					return false
+				}
+				val containment = (feature as EReference).containment
+				for (index : 0 ..< newValues.size) {
+					val newValue = newValues.get(index)
+					val currentValue = currentValues.get(index)
+					if (getCurrentStateCounterpart(newValue) !== currentValue ||
+						containment && !equals(newValue, currentValue)) {
+						return false
+					}
+				}
+				return true
+			}
+		}
+	}
+
+	private def void applyContainmentsAndAttributes(EObject newElement) {
+		if (newElement.isUnchanged) {
+			return
+		}
+		val currentElement = newToCurrentElements.get(newElement)
+		for (feature : newElement.eClass.EAllStructuralFeatures.filter[relevant]) {
+			switch (feature) {
+				EReference case feature.containment: {
+					val children = newElement.getValues(feature).filter(EObject).toList
+					currentElement.synchronize(feature, newElement, children.map[getOrCreateCurrentElement].toList)
+					children.forEach[applyContainmentsAndAttributes]
+				}
+				EAttribute:
+					currentElement.synchronize(feature, newElement, newElement.getValues(feature))
+			}
+		}
+	}
+
+	private def void applyNonContainmentReferences(EObject newElement) {
+		if (newElement.isUnchanged) {
+			return
+		}
+		val currentElement = newToCurrentElements.get(newElement)
+		for (reference : newElement.eClass.EAllReferences.filter[relevant]) {
+			if (reference.containment) {
+				newElement.getValues(reference).filter(EObject).forEach[applyNonContainmentReferences]
+			} else {
+				val newValues = newElement.getValues(reference).filter(EObject).map[currentStateCounterpart].toList
+				currentElement.synchronize(reference, newElement, newValues)
+			}
+		}
+	}
+
+	/**
+	 * Sets the values of the given feature of the current element to the given values of the new element,
+	 * if they differ.
+	 */
+	private def void synchronize(EObject currentElement, EStructuralFeature feature, EObject newElement,
+		List<?> newValues) {
+		if (feature.unsettable && !newElement.eIsSet(feature)) {
+			if (currentElement.eIsSet(feature)) {
+				currentElement.eUnset(feature)
+			}
+		} else if (feature.many) {
+			synchronizeList(currentElement.eGet(feature) as List<Object>, newValues, feature.unique)
+		} else {
+			val newValue = newValues.head
+			if ((feature.unsettable && !currentElement.eIsSet(feature)) ||
+				!Objects.equals(currentElement.eGet(feature), newValue)) {
+				currentElement.eSet(feature, newValue)
+			}
+		}
+	}
+
+	private static def <T> void synchronizeList(List<T> currentValues, List<? extends T> newValues) {
+		synchronizeList(currentValues, newValues, true)
+	}
+
+	/**
+	 * Modifies the given list of current values to equal the list of new values by removing and inserting only
+	 * the values that differ. Moved values are removed and inserted again, as moves are not recorded as such.
+	 */
+	private static def <T> void synchronizeList(List<T> currentValues, List<? extends T> newValues, boolean unique) {
+		if (!unique) {
+			synchronizeNonUniqueList(currentValues, newValues)
+			return
+		}
+		val newValueSet = new HashSet(newValues)
+		var index = currentValues.size
+		while (index > 0) {
+			index--
+			if (!newValueSet.contains(currentValues.get(index))) {
+				currentValues.remove(index)
+			}
+		}
+		val currentValueSet = new HashSet(currentValues)
+		for (newIndex : 0 ..< newValues.size) {
+			val newValue = newValues.get(newIndex)
+			if (newIndex >= currentValues.size || !Objects.equals(currentValues.get(newIndex), newValue)) {
+				if (currentValueSet.contains(newValue)) {
+					currentValues.remove(newValue)
+				}
+				currentValues.add(newIndex, newValue)
+			}
+		}
+	}
+
+	/**
+	 * Replaces the values between the common prefix and suffix of the lists, as values may occur multiple times.
+	 */
+	private static def <T> void synchronizeNonUniqueList(List<T> currentValues, List<? extends T> newValues) {
+		val commonLength = Math.min(currentValues.size, newValues.size)
+		var prefix = 0
+		while (prefix < commonLength && Objects.equals(currentValues.get(prefix), newValues.get(prefix))) {
+			prefix++
+		}
+		var suffix = 0
+		while (suffix < commonLength - prefix && Objects.equals(currentValues.get(currentValues.size - 1 - suffix),
+			newValues.get(newValues.size - 1 - suffix))) {
+			suffix++
+		}
+		var index = currentValues.size - suffix
+		while (index > prefix) {
+			index--
+			currentValues.remove(index)
+		}
+		for (newIndex : prefix ..< newValues.size - suffix) {
+			currentValues.add(newIndex, newValues.get(newIndex))
+		}
+	}
+
+	private static def boolean isRelevant(EStructuralFeature feature) {
+		return !feature.derived && !feature.transient && feature.changeable &&
+			!(feature instanceof EReference && (feature as EReference).container)
+	}
+
+	private static def List<?> getValues(EObject element, EStructuralFeature feature) {
+		val value = element.eGet(feature)
+		return if (feature.many) {
+			value as List<?>
+		} else if (value === null) {
+			emptyList
+		} else {
+			#[value]
+		}
+	}
+}
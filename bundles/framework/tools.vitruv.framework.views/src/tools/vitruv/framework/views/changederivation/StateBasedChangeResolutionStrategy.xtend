@@ -1,5 +1,7 @@
 package tools.vitruv.framework.views.changederivation
 
+import java.util.Map
+import org.eclipse.emf.ecore.EObject
 import org.eclipse.emf.ecore.resource.Resource
 import tools.vitruv.framework.change.description.VitruviusChange
 
@@ -16,6 +18,19 @@ interface StateBasedChangeResolutionStrategy {
 	 * @return a {@link VitruviusChange} that contains the individual change sequence.
 	 */
 	def VitruviusChange getChangeSequenceBetween(Resource newState, Resource oldState)
+
+	/**
+	 * Resolves the state-based delta of two resources like {@link #getChangeSequenceBetween(Resource, Resource)}.
+	 * Strategies may use the given mapping to match the elements of both states, by default it is ignored.
+	 * @param newState is the new state of the resource, must not be <code>null</code> and must not contain proxies.
+	 * @param oldState is the current or old state of the resource, must not be <code>null</code> and must not contain proxies.
+	 * @param newToOldElements maps elements of the new state to their counterparts in the old state, must not be <code>null</code>.
+	 * @return a {@link VitruviusChange} that contains the individual change sequence.
+	 */
+	def VitruviusChange getChangeSequenceBetween(Resource newState, Resource oldState,
+		Map<EObject, EObject> newToOldElements) {
+		return getChangeSequenceBetween(newState, oldState)
+	}
 	
 	/**
 	 * Resolves the state-based delta for creating the given resource and returns the correlating change sequences.
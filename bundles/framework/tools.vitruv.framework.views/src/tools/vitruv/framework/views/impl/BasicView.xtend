@@ -1,14 +1,19 @@
 package tools.vitruv.framework.views.impl
 
+import java.util.ArrayList
+import java.util.HashMap
+import java.util.List
+import java.util.Map
+import java.util.stream.Stream
 import org.eclipse.emf.common.notify.Notification
-import org.eclipse.emf.common.notify.Notifier
-import org.eclipse.emf.common.notify.impl.AdapterImpl
 import org.eclipse.emf.common.util.URI
 import org.eclipse.emf.ecore.EObject
-import org.eclipse.emf.ecore.resource.Resource
 import org.eclipse.emf.ecore.resource.ResourceSet
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl
+import org.eclipse.emf.ecore.util.EContentAdapter
 import org.eclipse.xtend.lib.annotations.Accessors
+import tools.vitruv.framework.change.description.PropagatedChange
+import tools.vitruv.framework.change.description.VitruviusChange
 import tools.vitruv.framework.change.propagation.ChangePropagationAbortCause
 import tools.vitruv.framework.change.propagation.ChangePropagationListener
 import tools.vitruv.framework.views.ChangeableViewSource
@@ -22,6 +27,13 @@ import static com.google.common.base.Preconditions.checkState
 import static extension edu.kit.ipd.sdq.commons.util.org.eclipse.emf.ecore.resource.ResourceSetUtil.withGlobalFactories
 
 package class BasicView implements ModifiableView, ChangePropagationListener {
+    /**
+     * The maximum number of changes recorded for updating the view incrementally. The recorded changes keep the
+     * source elements they reference alive, so if the view is not updated for a long time, it is copied again
+     * instead of keeping more changes.
+     */
+    package static val MAXIMUM_RECORDED_ECHANGES = 10000
+
     @Accessors(PUBLIC_GETTER, PROTECTED_SETTER)
     var ViewSelection selection
     @Accessors(PUBLIC_GETTER, PROTECTED_SETTER)
@@ -34,15 +46,37 @@ package class BasicView implements ModifiableView, ChangePropagationListener {
     @Accessors(PROTECTED_SETTER)
     boolean viewChanged
     boolean closed
+    val boolean recordPropagatedChanges
+    @Accessors(PUBLIC_GETTER)
+    var List<PropagatedChange> propagatedChangesSinceUpdate
+    int recordedEChangeCount
+    @Accessors(PUBLIC_GETTER)
+    val Map<EObject, EObject> sourceToViewElements = new HashMap
+    val viewChangeListener = new EContentAdapter {
+        override notifyChanged(Notification notification) {
+            super.notifyChanged(notification)
+            viewChanged = true
+        }
+    }
 
     protected new(ViewCreatingViewType<? extends ViewSelector> viewType, ChangeableViewSource viewSource,
         ViewSelection selection) {
+        this(viewType, viewSource, selection, false)
+    }
+
+    /**
+     * Creates a view that records the changes propagated in its view source if <code>recordPropagatedChanges</code>
+     * is <code>true</code>, such that the view type is able to update the view incrementally.
+     */
+    protected new(ViewCreatingViewType<? extends ViewSelector> viewType, ChangeableViewSource viewSource,
+        ViewSelection selection, boolean recordPropagatedChanges) {
         checkArgument(viewType !== null, "view type must not be null")
         checkArgument(viewSource !== null, "view selection must not be null")
         checkArgument(selection !== null, "view source must not be null")
         this.viewType = viewType
         this.viewSource = viewSource
         this.selection = selection
+        this.recordPropagatedChanges = recordPropagatedChanges
         viewSource.addChangePropagationListener(this)
         viewResourceSet = new ResourceSetImpl().withGlobalFactories
         update
@@ -53,6 +87,11 @@ package class BasicView implements ModifiableView, ChangePropagationListener {
         viewResourceSet.resources.map[contents].flatten.toList
     }
 
+    override Stream<EObject> streamRootObjects() {
+        checkNotClosed()
+        viewResourceSet.resources.stream.flatMap[contents.stream]
+    }
+
     override isModified() {
         return viewChanged
     }
@@ -66,8 +105,10 @@ package class BasicView implements ModifiableView, ChangePropagationListener {
         checkState(!isModified, "cannot update from model when view is modified")
         modelChanged = false
         viewType.updateView(this)
+        propagatedChangesSinceUpdate = if(recordPropagatedChanges) new ArrayList
+        recordedEChangeCount = 0
         viewChanged = false
-        viewResourceSet.addChangeListeners()
+        viewResourceSet.addChangeListener()
     }
 
     override close() throws Exception {
@@ -76,6 +117,8 @@ package class BasicView implements ModifiableView, ChangePropagationListener {
             viewResourceSet.resources.forEach[unload()]
             viewResourceSet.resources.clear()
             viewResourceSet.removeChangeListeners()
+            sourceToViewElements.clear()
+            propagatedChangesSinceUpdate = null
         }
         viewSource.removeChangePropagationListener(this)
     }
@@ -90,6 +133,33 @@ package class BasicView implements ModifiableView, ChangePropagationListener {
 
     override finishedChangePropagation() {
         modelChanged = true
+        // the propagated changes are not known, so the view has to be updated completely
+        propagatedChangesSinceUpdate = null
+    }
+
+    override finishedChangePropagation(List<PropagatedChange> propagatedChanges) {
+        modelChanged = true
+        if (propagatedChangesSinceUpdate !== null) {
+            for (propagatedChange : propagatedChanges) {
+                recordedEChangeCount += propagatedChange.originalChange.EChanges.size +
+                    propagatedChange.consequentialChanges.EChanges.size
+            }
+            if (recordedEChangeCount > MAXIMUM_RECORDED_ECHANGES) {
+                propagatedChangesSinceUpdate = null
+            } else {
+                propagatedChangesSinceUpdate.addAll(propagatedChanges)
+            }
+        }
+    }
+
+    /**
+     * Propagates the given change performed in this view to the view source. As the view already
+     * contains the change, the view cannot be updated incrementally with the propagated changes.
+     */
+    package def List<PropagatedChange> propagateViewChange(VitruviusChange change) {
+        val propagatedChanges = viewSource.propagateChange(change)
+        propagatedChangesSinceUpdate = null
+        return propagatedChanges
     }
 
     override startedChangePropagation() {
@@ -117,20 +187,18 @@ package class BasicView implements ModifiableView, ChangePropagationListener {
         checkState(!closed, "view is already closed!")
     }
 
-    private def void addChangeListeners(Notifier notifier) {
-        notifier.eAdapters += new AdapterImpl() {
-            override notifyChanged(Notification message) {
-                viewChanged = true
-            }
-        }
-        switch (notifier) {
-            ResourceSet: notifier.resources.forEach[addChangeListeners()]
-            Resource: notifier.contents.forEach[addChangeListeners()]
-            EObject: notifier.eContents.forEach[addChangeListeners]
+    /**
+     * Adds the listener for changes to the view, which is kept when the view is updated incrementally and
+     * automatically attached to new view contents.
+     */
+    private def void addChangeListener(ResourceSet resourceSet) {
+        if (!resourceSet.eAdapters.contains(viewChangeListener)) {
+            resourceSet.eAdapters += viewChangeListener
         }
     }
 
     private def void removeChangeListeners(ResourceSet resourceSet) {
+        resourceSet.eAdapters -= viewChangeListener
         resourceSet.allContents.forEach [
             eAdapters.clear()
         ]
@@ -3,6 +3,8 @@ package tools.vitruv.framework.views.impl
 import java.util.ArrayList
 import java.util.HashMap
 import java.util.HashSet
+import java.util.Map
+import org.eclipse.emf.ecore.EObject
 import org.eclipse.emf.ecore.resource.Resource
 import org.eclipse.emf.ecore.resource.ResourceSet
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl
@@ -29,6 +31,7 @@ class ChangeDerivingView implements ModifiableView, CommittableView {
     val StateBasedChangeResolutionStrategy changeResolutionStrategy
     var ResourceSet originalStateViewResourceSet
     var HashMap<Resource, Resource> originalStateResourceMapping
+    var Map<EObject, EObject> originalStateElementMapping
 
     protected new(BasicView view, StateBasedChangeResolutionStrategy changeResolutionStrategy) {
         checkArgument(view !== null, "view must not be null")
@@ -48,7 +51,8 @@ class ChangeDerivingView implements ModifiableView, CommittableView {
 
     private def setupReferenceState() {
         originalStateViewResourceSet = new ResourceSetImpl
-        ResourceCopier.copyResources(view.viewResourceSet.resources, originalStateViewResourceSet)
+        originalStateElementMapping = ResourceCopier.copyResources(view.viewResourceSet.resources,
+            originalStateViewResourceSet)
         originalStateResourceMapping = new HashMap
         view.viewResourceSet.resources.forEach[resource | originalStateResourceMapping.put(resource, originalStateViewResourceSet.resources.findFirst[URI === resource.URI])]
     }
@@ -61,7 +65,7 @@ class ChangeDerivingView implements ModifiableView, CommittableView {
         for (changedResource: allResources.filter[!URI.isPathmap]) {
             val change = generateChange(changedResource, originalStateResourceMapping.get(changedResource))
             if (change.containsConcreteChange) {
-                propagatedChanges += viewSource.propagateChange(change)
+                propagatedChanges += view.propagateViewChange(change)
             }
         }
         view.viewChanged = false
@@ -83,13 +87,16 @@ class ChangeDerivingView implements ModifiableView, CommittableView {
             return changeResolutionStrategy.getChangeSequenceForDeleted(referenceState)
         }
         else {
-            return changeResolutionStrategy.getChangeSequenceBetween(newState, referenceState)
+            // the copied reference state allows to match the elements by identity
+            return changeResolutionStrategy.getChangeSequenceBetween(newState, referenceState,
+                originalStateElementMapping)
         }
     }
 
     private def closeOriginalState() {
         originalStateViewResourceSet.resources.forEach[unload]
         originalStateViewResourceSet.resources.clear
+        originalStateElementMapping = emptyMap
     }
 
     override withChangeRecordingTrait() {
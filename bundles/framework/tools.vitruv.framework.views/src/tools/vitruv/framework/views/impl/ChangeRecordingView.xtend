@@ -40,7 +40,7 @@ class ChangeRecordingView implements ModifiableView, CommittableView {
     override commitChanges() {
         view.checkNotClosed()
         changeRecorder.endRecording()
-        val propagatedChanges = viewSource.propagateChange(changeRecorder.change)
+        val propagatedChanges = view.propagateViewChange(changeRecorder.change)
         view.viewChanged = false
         changeRecorder.beginRecording()
         return propagatedChanges
@@ -0,0 +1,222 @@
+package tools.vitruv.framework.views.impl
+
+import java.util.HashSet
+import java.util.Set
+import java.util.stream.Stream
+import java.util.stream.StreamSupport
+import org.eclipse.emf.common.notify.Notification
+import org.eclipse.emf.common.util.URI
+import org.eclipse.emf.ecore.EObject
+import org.eclipse.emf.ecore.resource.ResourceSet
+import org.eclipse.emf.ecore.util.EContentAdapter
+import org.eclipse.emf.ecore.util.EcoreUtil
+import org.eclipse.xtend.lib.annotations.Accessors
+import tools.vitruv.framework.change.propagation.ChangePropagationAbortCause
+import tools.vitruv.framework.change.propagation.ChangePropagationListener
+import tools.vitruv.framework.views.ChangeableViewSource
+import tools.vitruv.framework.views.View
+import tools.vitruv.framework.views.ViewSelection
+import tools.vitruv.framework.views.ViewSelector
+import tools.vitruv.framework.views.changederivation.StateBasedChangeResolutionStrategy
+
+import static com.google.common.base.Preconditions.checkArgument
+import static com.google.common.base.Preconditions.checkState
+
+/**
+ * A {@link View} that shares the selected elements with its view source instead of copying them, as long
+ * as it is only read. The view always reflects the current state of the view source and is thus never outdated.
+ * The shared elements must not be modified. As soon as the view is to be modified, i.e., when its contents are
+ * modified, roots are registered or moved or a trait for committing changes is requested, the selected elements
+ * are copied into a {@link BasicView} to which all further calls are delegated. Elements retrieved from the view
+ * before it was copied are elements of the view source, so they have to be retrieved again after copying to
+ * perform modifications.
+ * <p>
+ * The shared elements handed out by the view are watched until the view is copied or closed. If they are
+ * modified other than by propagating changes in the view source, the view fails with an
+ * {@link IllegalStateException} on the next access to its root objects or when it is copied.
+ */
+package class CopyOnWriteView implements ModifiableView, ChangePropagationListener {
+	@Accessors(PUBLIC_GETTER)
+	val ViewSelection selection
+	@Accessors(PUBLIC_GETTER)
+	val ViewCreatingViewType<? extends ViewSelector> viewType
+	@Accessors(PUBLIC_GETTER)
+	val ChangeableViewSource viewSource
+	val boolean recordPropagatedChanges
+	val ()=>Iterable<EObject> sharedRootObjects
+	var BasicView copiedView
+	var boolean closed
+	var boolean propagatingChanges
+	// the first modification of a shared element outside of change propagation in the view source
+	var Notification sharedElementModification
+	val Set<EObject> watchedSharedRootObjects = new HashSet
+	val sharedElementsWatcher = new EContentAdapter {
+		override notifyChanged(Notification notification) {
+			super.notifyChanged(notification)
+			if (!propagatingChanges && sharedElementModification === null && notification.isModification) {
+				sharedElementModification = notification
+			}
+		}
+	}
+
+	/**
+	 * @param sharedRootObjects provides the elements of the view source that are the root objects of the view
+	 * 		as long as it has not been copied
+	 */
+	new(ViewCreatingViewType<? extends ViewSelector> viewType, ChangeableViewSource viewSource,
+		ViewSelection selection, boolean recordPropagatedChanges, ()=>Iterable<EObject> sharedRootObjects) {
+		checkArgument(viewType !== null, "view type must not be null")
+		checkArgument(viewSource !== null, "view source must not be null")
+		checkArgument(selection !== null, "view selection must not be null")
+		checkArgument(sharedRootObjects !== null, "shared root objects must not be null")
+		this.viewType = viewType
+		this.viewSource = viewSource
+		this.selection = selection
+		this.recordPropagatedChanges = recordPropagatedChanges
+		this.sharedRootObjects = sharedRootObjects
+		viewSource.addChangePropagationListener(this)
+	}
+
+	/**
+	 * Returns whether the view still shares its elements with the view source.
+	 */
+	def boolean isShared() {
+		return copiedView === null
+	}
+
+	private def BasicView getOrCreateCopiedView() {
+		checkNotClosed()
+		if (copiedView === null) {
+			checkSharedElementsUnmodified()
+			stopWatchingSharedElements()
+			copiedView = new BasicView(viewType, viewSource, selection, recordPropagatedChanges)
+		}
+		return copiedView
+	}
+
+	private def EObject watch(EObject sharedRootObject) {
+		if (watchedSharedRootObjects += sharedRootObject) {
+			sharedRootObject.eAdapters += sharedElementsWatcher
+		}
+		return sharedRootObject
+	}
+
+	private def void stopWatchingSharedElements() {
+		watchedSharedRootObjects.forEach[eAdapters -= sharedElementsWatcher]
+		watchedSharedRootObjects.clear()
+	}
+
+	private def void checkSharedElementsUnmodified() {
+		checkState(sharedElementModification === null,
+			"elements of the view source shared by this view were modified outside of change propagation: %s",
+			sharedElementModification)
+	}
+
+	private static def boolean isModification(Notification notification) {
+		!notification.touch && notification.eventType != Notification.REMOVING_ADAPTER &&
+			notification.eventType != Notification.RESOLVE
+	}
+
+	/**
+	 * Returns the copy of the given element if it is a shared element of the view source, which is
+	 * found via its URI, as the copied view contains resources with the same URIs and contents.
+	 */
+	private def EObject getCopiedElement(EObject element) {
+		val copiedViewResourceSet = copiedView.viewResourceSet
+		if (element.eResource === null || element.eResource.resourceSet === copiedViewResourceSet) {
+			return element
+		}
+		return copiedViewResourceSet.getEObject(EcoreUtil.getURI(element), false) ?: element
+	}
+
+	override getRootObjects() {
+		checkNotClosed()
+		if (!isShared) {
+			return copiedView.rootObjects
+		}
+		checkSharedElementsUnmodified()
+		return sharedRootObjects.apply().map[watch()].toList
+	}
+
+	override Stream<EObject> streamRootObjects() {
+		checkNotClosed()
+		return if (isShared) {
+			checkSharedElementsUnmodified()
+			StreamSupport.stream(sharedRootObjects.apply().spliterator, false).map[watch()]
+		} else {
+			copiedView.streamRootObjects
+		}
+	}
+
+	override isModified() {
+		return !isShared && copiedView.isModified
+	}
+
+	override isOutdated() {
+		return !isShared && copiedView.isOutdated
+	}
+
+	override update() {
+		checkNotClosed()
+		if (!isShared) {
+			copiedView.update()
+		}
+	}
+
+	override close() throws Exception {
+		if (!closed) {
+			closed = true
+			stopWatchingSharedElements()
+			viewSource.removeChangePropagationListener(this)
+			copiedView?.close()
+		}
+	}
+
+	override startedChangePropagation() {
+		propagatingChanges = true
+	}
+
+	override finishedChangePropagation() {
+		propagatingChanges = false
+	}
+
+	override abortedChangePropagation(ChangePropagationAbortCause cause) {
+		propagatingChanges = false
+	}
+
+	override isClosed() {
+		return closed
+	}
+
+	override registerRoot(EObject object, URI persistAt) {
+		getOrCreateCopiedView().registerRoot(object, persistAt)
+	}
+
+	override moveRoot(EObject object, URI newLocation) {
+		getOrCreateCopiedView().moveRoot(object?.copiedElement, newLocation)
+	}
+
+	override modifyContents((ResourceSet)=>void modificationFunction) {
+		getOrCreateCopiedView().modifyContents(modificationFunction)
+	}
+
+	override getPropagatedChangesSinceUpdate() {
+		return copiedView?.propagatedChangesSinceUpdate
+	}
+
+	override getSourceToViewElements() {
+		return copiedView?.sourceToViewElements ?: emptyMap
+	}
+
+	override withChangeRecordingTrait() {
+		return getOrCreateCopiedView().withChangeRecordingTrait()
+	}
+
+	override withChangeDerivingTrait(StateBasedChangeResolutionStrategy changeResolutionStrategy) {
+		return getOrCreateCopiedView().withChangeDerivingTrait(changeResolutionStrategy)
+	}
+
+	private def void checkNotClosed() {
+		checkState(!closed, "view is already closed!")
+	}
+}
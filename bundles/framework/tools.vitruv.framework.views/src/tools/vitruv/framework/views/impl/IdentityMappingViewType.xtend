@@ -1,7 +1,16 @@
 package tools.vitruv.framework.views.impl
 
+import com.google.common.collect.ImmutableSet
+import java.util.Set
+import org.apache.log4j.Logger
+import org.eclipse.emf.ecore.EObject
+import org.eclipse.emf.ecore.InternalEObject
+import org.eclipse.emf.ecore.resource.Resource
+import org.eclipse.emf.ecore.resource.ResourceSet
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
 import tools.vitruv.framework.views.ChangeableViewSource
 import tools.vitruv.framework.views.View
+import tools.vitruv.framework.views.ViewSelection
 import tools.vitruv.framework.views.ViewSource
 import tools.vitruv.framework.views.selectors.DirectViewElementSelector
 import tools.vitruv.framework.views.util.ResourceCopier
@@ -14,36 +23,135 @@ import static extension tools.vitruv.framework.views.util.ResourceCopier.require
  * A view type that allows creating views based on a basic element-wise selection mechanism
  * and providing a one-to-one (identity) mapping of elements within the {@link ViewSource}
  * to a created {@link View}.
+ * If incremental updates are enabled, views are updated by applying the changes propagated in the
+ * {@link ViewSource} since their last update to the copied elements, instead of copying all selected
+ * elements again. Views are only copied again if the changes cannot be mapped to the view.
+ * If copy on write is enabled, views share the selected elements with the {@link ViewSource} until
+ * they are modified, as described for the {@link CopyOnWriteView}.
  */
 class IdentityMappingViewType extends AbstractViewType<DirectViewElementSelector> {
+	static val logger = Logger.getLogger(IdentityMappingViewType)
+	val boolean incrementalUpdates
+	val boolean copyOnWrite
 
 	new(String name) {
+		this(name, false)
+	}
+
+	new(String name, boolean incrementalUpdates) {
+		this(name, incrementalUpdates, false)
+	}
+
+	new(String name, boolean incrementalUpdates, boolean copyOnWrite) {
 		super(name)
+		this.incrementalUpdates = incrementalUpdates
+		this.copyOnWrite = copyOnWrite
 	}
 
 	override createSelector(ChangeableViewSource viewSource) {
-		return new DirectViewElementSelector(this, viewSource, viewSource.viewSourceModels.flatMap [
+		val viewSourceResources = new ViewSourceResources(viewSource)
+		return new DirectViewElementSelector(this, viewSource, [ImmutableSet.copyOf(viewSource.selectableElements)], [
+			isSelectableIn(viewSourceResources)
+		])
+	}
+
+	private static def Iterable<EObject> getSelectableElements(ViewSource viewSource) {
+		viewSource.viewSourceModels.flatMap [
 			if (requiresFullCopy) {
 				#[contents.head] // We can only copy writable UML resources as a whole, so no option to select specific root elements
 			} else {
 				contents
 			}
-		].filterNull.toList)
+		].filterNull
+	}
+
+	/**
+	 * Returns whether the given element is one of the {@linkplain #getSelectableElements selectable elements} of the given
+	 * view source. This is determined from the resource directly containing the element, so that the root elements
+	 * of the source models do not have to be collected.
+	 */
+	private static def boolean isSelectableIn(EObject element, ViewSourceResources viewSourceResources) {
+		val resource = (element as InternalEObject).eDirectResource
+		if (resource === null || !viewSourceResources.contains(resource)) {
+			return false
+		}
+		return !resource.requiresFullCopy || resource.contents.head === element
+	}
+
+	/**
+	 * The source models of a view source, which are requested from the view source once instead of for every
+	 * checked element, as requesting them may load them and checking whether they contain a resource may have to
+	 * scan them. They are only requested again when a resource is checked that may have been added to or removed
+	 * from the view source since, as it is (not) contained in a resource set of the source models but is not
+	 * (but is) one of them.
+	 */
+	@FinalFieldsConstructor
+	private static class ViewSourceResources {
+		val ViewSource viewSource
+		var Set<Resource> resources
+		var Set<ResourceSet> resourceSets
+
+		def boolean contains(Resource resource) {
+			if (resources === null || resources.contains(resource) != resourceSets.contains(resource.resourceSet)) {
+				resources = Set.copyOf(viewSource.viewSourceModels)
+				resourceSets = resources.map[resourceSet].filterNull.toSet
+			}
+			return resources.contains(resource)
+		}
 	}
 
 	override createView(DirectViewElementSelector selector) {
 		checkArgument(selector.viewType === this, "cannot create view with selector for different view type")
-		return new BasicView(selector.viewType, selector.viewSource, selector.selection)
+		val viewSource = selector.viewSource
+		val selection = selector.selection
+		if (copyOnWrite) {
+			return new CopyOnWriteView(selector.viewType, viewSource, selection, incrementalUpdates) [
+				getSelectedRootElements(viewSource, selection)
+			]
+		}
+		return new BasicView(selector.viewType, viewSource, selection, incrementalUpdates)
+	}
+
+	/**
+	 * Returns the root elements of the given view source selected by the given selection, including all root
+	 * elements of resources with selected elements that can only be copied as a whole.
+	 */
+	private static def Iterable<EObject> getSelectedRootElements(ViewSource viewSource, ViewSelection selection) {
+		viewSource.viewSourceModels.filter[contents.exists[selection.isViewObjectSelected(it)]].flatMap [ resource |
+			if (resource.requiresFullCopy) {
+				resource.contents
+			} else {
+				resource.contents.filter[selection.isViewObjectSelected(it)]
+			}
+		]
 	}
 
 	override updateView(ModifiableView view) {
 		view.modifyContents [ viewResourceSet |
+			val selection = view.selection
+			val propagatedChanges = view.propagatedChangesSinceUpdate
+			if (incrementalUpdates && propagatedChanges !== null) {
+				val changeApplicator = new SourceChangeApplicator(view.sourceToViewElements) [
+					selection.isViewObjectSelected(it)
+				]
+				if (changeApplicator.applyIfMappable(propagatedChanges)) {
+					return
+				}
+				if (logger.isDebugEnabled) {
+					logger.debug('''Propagated changes cannot be applied to view of type «name», so it is copied again''')
+				}
+			}
 			viewResourceSet.resources.forEach[unload]
 			viewResourceSet.resources.clear
+			view.sourceToViewElements.clear
 			val viewSources = view.viewSource.viewSourceModels
-			val selection = view.selection
 			val resourcesWithSelectedElements = viewSources.filter[contents.exists[selection.isViewObjectSelected(it)]]
-			ResourceCopier.copyResources(resourcesWithSelectedElements, viewResourceSet) [selection.isViewObjectSelected(it)]
+			val copiedElements = ResourceCopier.copyResources(resourcesWithSelectedElements, viewResourceSet) [
+				selection.isViewObjectSelected(it)
+			]
+			if (incrementalUpdates) {
+				view.sourceToViewElements.putAll(copiedElements)
+			}
 		]
 	}
 }
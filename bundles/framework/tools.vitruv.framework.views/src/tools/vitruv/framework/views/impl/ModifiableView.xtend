@@ -1,6 +1,10 @@
 package tools.vitruv.framework.views.impl
 
+import java.util.List
+import java.util.Map
+import org.eclipse.emf.ecore.EObject
 import org.eclipse.emf.ecore.resource.ResourceSet
+import tools.vitruv.framework.change.description.PropagatedChange
 import tools.vitruv.framework.views.ChangeableViewSource
 import tools.vitruv.framework.views.View
 
@@ -11,4 +15,16 @@ interface ModifiableView extends View {
 	def void modifyContents((ResourceSet)=>void modificationFunction);
 
 	def ChangeableViewSource getViewSource()
+
+	/**
+	 * Returns the changes that have been propagated in the view source since the view was last updated,
+	 * or <code>null</code> if they are not known, such that the view has to be updated completely.
+	 */
+	def List<PropagatedChange> getPropagatedChangesSinceUpdate()
+
+	/**
+	 * Returns the mapping from elements in the view source to their copies in the view, which can be
+	 * maintained by a view type to update the view incrementally.
+	 */
+	def Map<EObject, EObject> getSourceToViewElements()
 }
@@ -0,0 +1,242 @@
+package tools.vitruv.framework.views.impl
+
+import java.util.ArrayList
+import java.util.HashMap
+import java.util.HashSet
+import java.util.LinkedHashSet
+import java.util.Map
+import java.util.Set
+import org.eclipse.emf.ecore.EObject
+import org.eclipse.emf.ecore.EReference
+import org.eclipse.emf.ecore.EStructuralFeature
+import org.eclipse.emf.ecore.util.EcoreUtil
+import tools.vitruv.framework.change.description.PropagatedChange
+import tools.vitruv.framework.change.echange.EChange
+import tools.vitruv.framework.change.echange.eobject.CreateEObject
+import tools.vitruv.framework.change.echange.eobject.DeleteEObject
+import tools.vitruv.framework.change.echange.feature.FeatureEChange
+import tools.vitruv.framework.change.echange.feature.reference.InsertEReference
+import tools.vitruv.framework.change.echange.feature.reference.RemoveEReference
+import tools.vitruv.framework.change.echange.feature.reference.ReplaceSingleValuedEReference
+import tools.vitruv.framework.change.echange.root.InsertRootEObject
+import tools.vitruv.framework.change.echange.root.RemoveRootEObject
+
+import static com.google.common.base.Preconditions.checkArgument
+
+import static extension tools.vitruv.framework.change.echange.resolve.EChangeResolverAndApplicator.applyForward
+
+/**
+ * Applies changes that have been propagated in the source models of a view to the copies of the changed
+ * elements in the view, based on the mapping from source elements to their copies in the view.
+ * Changes of elements that are not part of the view are ignored. Changes that cannot be mapped to the
+ * view, such as moving an element into or out of the view or inserting a selected root element, cannot
+ * be applied, so the view has to be copied again.
+ */
+package class SourceChangeApplicator {
+	val Map<EObject, EObject> sourceToViewElements
+	val (EObject)=>Boolean rootElementPredicate
+	val Map<EObject, EObject> createdElements = new HashMap
+	val Set<EObject> deletedElements = new HashSet
+
+	private enum MappingResult {
+		MAPPED,
+		IRRELEVANT,
+		UNMAPPABLE
+	}
+
+	/**
+	 * @param sourceToViewElements The mapping from source elements to their copies in the view, which is
+	 * 		updated when changes are applied
+	 * @param rootElementPredicate The predicate for the source root elements that are selected for the view
+	 */
+	new(Map<EObject, EObject> sourceToViewElements, (EObject)=>Boolean rootElementPredicate) {
+		checkArgument(sourceToViewElements !== null, "source to view elements mapping must not be null")
+		checkArgument(rootElementPredicate !== null, "root element predicate must not be null")
+		this.sourceToViewElements = sourceToViewElements
+		this.rootElementPredicate = rootElementPredicate
+	}
+
+	/**
+	 * Applies the given propagated changes to the view and updates the mapping of source elements to view
+	 * elements accordingly, if all changes can be mapped to the view. Otherwise, neither the view nor the
+	 * mapping is changed.
+	 *
+	 * @return whether the changes were applied to the view
+	 */
+	def boolean applyIfMappable(Iterable<PropagatedChange> propagatedChanges) {
+		createdElements.clear()
+		deletedElements.clear()
+		val viewChanges = new ArrayList<EChange>
+		for (sourceChange : propagatedChanges.sourceEChanges) {
+			val viewChange = EcoreUtil.copy(sourceChange)
+			switch (mapToView(viewChange)) {
+				case MAPPED: viewChanges += viewChange
+				case UNMAPPABLE: return false
+			}
+		}
+		viewChanges.forEach[applyForward()]
+		createdElements.forEach [ sourceElement, viewElement |
+			if (viewElement.eResource !== null) {
+				sourceToViewElements.put(sourceElement, viewElement)
+			}
+		]
+		sourceToViewElements.keySet.removeAll(deletedElements)
+		return true
+	}
+
+	/**
+	 * Returns the changes of the given propagated changes in the order they were performed. The original change
+	 * of a transitive propagation consists of consequential changes of a previous one, so they are only returned once.
+	 */
+	private static def Iterable<EChange> getSourceEChanges(Iterable<PropagatedChange> propagatedChanges) {
+		val eChanges = new LinkedHashSet<EChange>
+		for (propagatedChange : propagatedChanges) {
+			eChanges += propagatedChange.originalChange.EChanges
+			eChanges += propagatedChange.consequentialChanges.EChanges
+		}
+		return eChanges
+	}
+
+	private def EObject getViewElement(EObject sourceElement) {
+		createdElements.get(sourceElement) ?: sourceToViewElements.get(sourceElement)
+	}
+
+	/**
+	 * Returns the view element for the given referenced source element. Non-containment references may
+	 * target elements that are not part of the view, which are referenced directly like in the copied view.
+	 * Bidirectional references to such elements are not copied, as setting them would modify the source elements
+	 * through the opposite reference, so <code>null</code> is returned for them.
+	 */
+	private def EObject getReferencedViewElement(EObject sourceElement, EReference reference) {
+		val viewElement = sourceElement.viewElement
+		return if (viewElement === null && !reference.containment && reference.EOpposite === null) {
+			sourceElement
+		} else {
+			viewElement
+		}
+	}
+
+	/**
+	 * Returns whether the given source element is referenced by the given reference but not by the copy of the
+	 * referencing element in the view, which is the case for bidirectional references to elements that are not
+	 * part of the view, like {@link EcoreUtil.Copier} does not copy them.
+	 */
+	private def boolean isOmittedReferenceTarget(EObject sourceElement, EReference reference) {
+		return !reference.containment && reference.EOpposite !== null && sourceElement.viewElement === null
+	}
+
+	/**
+	 * Replaces the affected source element of the given change with its view element and returns
+	 * whether the element is part of the view.
+	 */
+	private def <F extends EStructuralFeature> boolean mapAffectedElement(FeatureEChange<EObject, F> change) {
+		val viewElement = change.affectedEObject.viewElement
+		if (viewElement !== null) {
+			change.affectedEObject = viewElement
+		}
+		return viewElement !== null
+	}
+
+	/**
+	 * Returns the mapping result for a reference change of an element that is not part of the view, which moves
+	 * the given view element out of the view if the reference is a containment reference.
+	 */
+	private def MappingResult getResultForUnmappedElement(EReference reference, EObject... values) {
+		if (reference.containment && values.exists[it !== null && sourceToViewElements.containsKey(it)]) {
+			MappingResult.UNMAPPABLE
+		} else {
+			MappingResult.IRRELEVANT
+		}
+	}
+
+	private dispatch def MappingResult mapToView(EChange change) {
+		MappingResult.UNMAPPABLE
+	}
+
+	private dispatch def MappingResult mapToView(FeatureEChange<EObject, EStructuralFeature> change) {
+		if(change.mapAffectedElement) MappingResult.MAPPED else MappingResult.IRRELEVANT
+	}
+
+	private dispatch def MappingResult mapToView(InsertEReference<EObject, EObject> change) {
+		if (!change.mapAffectedElement) {
+			return change.affectedFeature.getResultForUnmappedElement(change.newValue)
+		}
+		if (change.newValue.isOmittedReferenceTarget(change.affectedFeature)) {
+			return MappingResult.IRRELEVANT
+		}
+		change.newValue = change.newValue.getReferencedViewElement(change.affectedFeature)
+		if(change.newValue !== null) MappingResult.MAPPED else MappingResult.UNMAPPABLE
+	}
+
+	private dispatch def MappingResult mapToView(RemoveEReference<EObject, EObject> change) {
+		if (!change.mapAffectedElement) {
+			return change.affectedFeature.getResultForUnmappedElement(change.oldValue)
+		}
+		if (change.oldValue.isOmittedReferenceTarget(change.affectedFeature)) {
+			return MappingResult.IRRELEVANT
+		}
+		change.oldValue = change.oldValue.getReferencedViewElement(change.affectedFeature)
+		if(change.oldValue !== null) MappingResult.MAPPED else MappingResult.UNMAPPABLE
+	}
+
+	private dispatch def MappingResult mapToView(ReplaceSingleValuedEReference<EObject, EObject> change) {
+		val sourceOldValue = change.oldValue
+		val sourceNewValue = change.newValue
+		if (!change.mapAffectedElement) {
+			return change.affectedFeature.getResultForUnmappedElement(sourceOldValue, sourceNewValue)
+		}
+		val oldValueOmitted = sourceOldValue !== null && sourceOldValue.isOmittedReferenceTarget(change.affectedFeature)
+		val newValueOmitted = sourceNewValue !== null && sourceNewValue.isOmittedReferenceTarget(change.affectedFeature)
+		change.oldValue = sourceOldValue?.getReferencedViewElement(change.affectedFeature)
+		change.newValue = sourceNewValue?.getReferencedViewElement(change.affectedFeature)
+		if ((sourceOldValue !== null && !oldValueOmitted && change.oldValue === null) ||
+			(sourceNewValue !== null && !newValueOmitted && change.newValue === null)) {
+			MappingResult.UNMAPPABLE
+		} else if (change.oldValue === null && change.newValue === null) {
+			MappingResult.IRRELEVANT
+		} else {
+			MappingResult.MAPPED
+		}
+	}
+
+	private dispatch def MappingResult mapToView(InsertRootEObject<EObject> change) {
+		// the view resource may contain only some of the root elements, so the insertion index cannot be mapped
+		if (sourceToViewElements.containsKey(change.newValue) || rootElementPredicate.apply(change.newValue)) {
+			MappingResult.UNMAPPABLE
+		} else {
+			MappingResult.IRRELEVANT
+		}
+	}
+
+	private dispatch def MappingResult mapToView(RemoveRootEObject<EObject> change) {
+		val viewElement = change.oldValue.viewElement
+		if (viewElement === null) {
+			return MappingResult.IRRELEVANT
+		} else if (viewElement.eResource === null) {
+			return MappingResult.UNMAPPABLE
+		}
+		change.resource = viewElement.eResource
+		change.oldValue = viewElement
+		return MappingResult.MAPPED
+	}
+
+	private dispatch def MappingResult mapToView(CreateEObject<EObject> change) {
+		val viewElement = EcoreUtil.create(change.affectedEObject.eClass)
+		if (change.idAttributeValue !== null) {
+			EcoreUtil.setID(viewElement, change.idAttributeValue)
+		}
+		createdElements.put(change.affectedEObject, viewElement)
+		change.affectedEObject = viewElement
+		return MappingResult.MAPPED
+	}
+
+	private dispatch def MappingResult mapToView(DeleteEObject<EObject> change) {
+		val viewElement = change.affectedEObject.viewElement
+		if (viewElement === null) {
+			return MappingResult.IRRELEVANT
+		}
+		deletedElements += change.affectedEObject
+		change.affectedEObject = viewElement
+		return MappingResult.MAPPED
+	}
+}
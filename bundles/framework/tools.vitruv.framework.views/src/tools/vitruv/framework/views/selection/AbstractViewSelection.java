@@ -2,8 +2,10 @@ package tools.vitruv.framework.views.selection;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import org.eclipse.emf.ecore.EObject;
 
@@ -13,43 +15,86 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 public abstract class AbstractViewSelection implements ModifiableViewSelection {
-	final Map<EObject, Boolean> elementsSelection = new HashMap<>();
+	private final Supplier<Set<EObject>> selectableElementsProvider;
+	private final Predicate<EObject> selectablePredicate;
+	final Set<EObject> selectedElements = new HashSet<>();
 
 	public AbstractViewSelection(Collection<EObject> selectableElements) {
-		selectableElements.forEach(object -> this.elementsSelection
-				.put(checkNotNull(object, "element to select must not be null"), false));
+		Set<EObject> selectableElementsSet = copySelectableElements(selectableElements);
+		this.selectableElementsProvider = () -> selectableElementsSet;
+		this.selectablePredicate = selectableElementsSet::contains;
+	}
+
+	/**
+	 * Creates a selection whose selectable elements are only determined when they
+	 * are requested, such that creating the selection does not require to collect
+	 * all of them.
+	 * 
+	 * @param selectableElementsProvider provides the selectable elements whenever
+	 *                                   they are requested
+	 * @param selectablePredicate        decides whether an element is selectable
+	 *                                   without determining all selectable
+	 *                                   elements
+	 */
+	public AbstractViewSelection(Supplier<Set<EObject>> selectableElementsProvider,
+			Predicate<EObject> selectablePredicate) {
+		this.selectableElementsProvider = checkNotNull(selectableElementsProvider,
+				"selectable elements provider must not be null");
+		this.selectablePredicate = checkNotNull(selectablePredicate, "selectable predicate must not be null");
 	}
 
 	public AbstractViewSelection(ModifiableViewSelection sourceViewSelection) {
-		this(sourceViewSelection.getSelectableElements());
-		for (EObject selectableElement : sourceViewSelection.getSelectableElements()) {
-			setSelected(selectableElement, sourceViewSelection.isSelected(selectableElement));
+		if (sourceViewSelection instanceof AbstractViewSelection) {
+			// only copy the selected elements, as the selectable ones are shared
+			AbstractViewSelection abstractSourceViewSelection = (AbstractViewSelection) sourceViewSelection;
+			this.selectableElementsProvider = abstractSourceViewSelection.selectableElementsProvider;
+			this.selectablePredicate = abstractSourceViewSelection.selectablePredicate;
+			this.selectedElements.addAll(abstractSourceViewSelection.selectedElements);
+		} else {
+			Set<EObject> selectableElementsSet = copySelectableElements(
+					sourceViewSelection.getSelectableElements());
+			this.selectableElementsProvider = () -> selectableElementsSet;
+			this.selectablePredicate = selectableElementsSet::contains;
+			for (EObject selectableElement : selectableElementsSet) {
+				setSelected(selectableElement, sourceViewSelection.isSelected(selectableElement));
+			}
 		}
 	}
 
+	private static Set<EObject> copySelectableElements(Collection<EObject> selectableElements) {
+		Set<EObject> selectableElementsSet = new HashSet<>();
+		selectableElements.forEach(object -> selectableElementsSet
+				.add(checkNotNull(object, "element to select must not be null")));
+		return Collections.unmodifiableSet(selectableElementsSet);
+	}
+
 	private void checkIsSelectable(EObject eObject) {
 		checkState(isSelectable(eObject), "given object %s must be contained in the selector elements", eObject);
 	}
 
 	@Override
 	public boolean isSelected(EObject eObject) {
-		return elementsSelection.getOrDefault(eObject, false);
+		return selectedElements.contains(eObject);
 	}
 
 	@Override
 	public boolean isSelectable(EObject eObject) {
-		return elementsSelection.keySet().contains(eObject);
+		return eObject != null && selectablePredicate.test(eObject);
 	}
 
 	@Override
 	public Collection<EObject> getSelectableElements() {
-		return Collections.unmodifiableSet(elementsSelection.keySet());
+		return selectableElementsProvider.get();
 	}
 
 	@Override
 	public void setSelected(EObject eObject, boolean selected) {
 		checkIsSelectable(eObject);
-		elementsSelection.put(eObject, selected);
+		if (selected) {
+			selectedElements.add(eObject);
+		} else {
+			selectedElements.remove(eObject);
+		}
 	}
 
 }
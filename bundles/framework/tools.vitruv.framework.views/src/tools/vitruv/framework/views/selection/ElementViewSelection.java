@@ -1,6 +1,9 @@
 package tools.vitruv.framework.views.selection;
 
 import java.util.Collection;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import org.eclipse.emf.ecore.EObject;
 
@@ -12,6 +15,11 @@ public class ElementViewSelection extends AbstractViewSelection {
 		super(selectableElements);
 	}
 
+	public ElementViewSelection(Supplier<Set<EObject>> selectableElementsProvider,
+			Predicate<EObject> selectablePredicate) {
+		super(selectableElementsProvider, selectablePredicate);
+	}
+
 	public ElementViewSelection(ModifiableViewSelection sourceViewSelection) {
 		super(sourceViewSelection);
 	}
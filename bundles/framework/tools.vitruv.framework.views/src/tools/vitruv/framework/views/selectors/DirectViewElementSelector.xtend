@@ -1,6 +1,9 @@
 package tools.vitruv.framework.views.selectors
 
 import java.util.Collection
+import java.util.Set
+import java.util.function.Predicate
+import java.util.function.Supplier
 import org.eclipse.emf.ecore.EObject
 import org.eclipse.xtend.lib.annotations.Accessors
 import org.eclipse.xtend.lib.annotations.Delegate
@@ -53,6 +56,30 @@ class DirectViewElementSelector implements ViewSelector {
 		this.viewSelection = new ElementViewSelection(selectableElements)
 	}
 
+	/**
+	 * Creates a new selector like {@link #DirectViewElementSelector(ViewCreatingViewType, ChangeableViewSource, Collection)},
+	 * whose selectable elements are only determined when they are requested. All arguments must not be <code>null</code>.
+	 * 
+	 * @param viewType -					the {@link ViewType} to create a view for when 
+	 * 										calling {@link createView}
+	 * @param viewSource -					the {@link ChangeableViewSource} to create a view 
+	 * 										from
+	 * @param selectableElementsProvider -	provides the elements to select from whenever they 
+	 * 										are requested
+	 * @param selectablePredicate -			decides whether an element can be selected without 
+	 * 										determining all selectable elements
+	 */
+	new(ViewCreatingViewType<DirectViewElementSelector> viewType, ChangeableViewSource viewSource,
+		Supplier<Set<EObject>> selectableElementsProvider, Predicate<EObject> selectablePredicate) {
+		checkArgument(selectableElementsProvider !== null, "selectable elements provider must not be null")
+		checkArgument(selectablePredicate !== null, "selectable predicate must not be null")
+		checkArgument(viewType !== null, "view type must not be null")
+		checkArgument(viewSource !== null, "view source must not be null")
+		this.viewType = viewType
+		this.viewSource = viewSource
+		this.viewSelection = new ElementViewSelection(selectableElementsProvider, selectablePredicate)
+	}
+
 	override createView() {
 		checkState(isValid(), "the current selection is invalid, thus a view cannot be created")
 		return viewType.createView(this)
@@ -1,8 +1,11 @@
 package tools.vitruv.framework.views.util
 
 import edu.kit.ipd.sdq.activextendannotations.Utility
-import java.nio.file.Files
-import org.eclipse.emf.common.util.URI
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.util.HashMap
+import java.util.LinkedHashMap
+import java.util.Map
 import org.eclipse.emf.ecore.EObject
 import org.eclipse.emf.ecore.resource.Resource
 import org.eclipse.emf.ecore.resource.ResourceSet
@@ -33,12 +36,25 @@ class ResourceCopier {
      * @param originalResources The resources to copy
      * @param newResourceSet The resource set to which the copies are attached
      * @param rootElementPredicate A predicate to include only a subset of the root elements of the <code>originalResources</code>
+     * @return A mapping from the original elements to their copies contained in the <code>newResourceSet</code>
      */
-    static def copyResources(Iterable<Resource> originalResources, ResourceSet newResourceSet, (EObject)=>Boolean rootElementPredicate) {
+    static def Map<EObject, EObject> copyResources(Iterable<Resource> originalResources, ResourceSet newResourceSet,
+        (EObject)=>Boolean rootElementPredicate) {
+        val originalToCopiedElements = new HashMap<EObject, EObject>
+        val originalToCopiedUmlResources = new LinkedHashMap<Resource, Resource>
         for (umlResource : originalResources.filter[isWritableUmlResource].toList) {
-            tools.vitruv.framework.views.util.ResourceCopier.copyUmlResource(umlResource, newResourceSet)
+            originalToCopiedUmlResources.put(umlResource,
+                tools.vitruv.framework.views.util.ResourceCopier.copyUmlResource(umlResource, newResourceSet))
         }
-        originalResources.filter[!isWritableUmlResource].toList.copyResourcesInternal(newResourceSet, rootElementPredicate)
+        originalResources.filter[!isWritableUmlResource].toList.copyResourcesInternal(newResourceSet,
+            rootElementPredicate, originalToCopiedElements)
+        // the copied UML resources are only resolved when all resources are copied, as resolving a reference to
+        // a resource that is not copied yet would load that resource into the new resource set instead
+        originalToCopiedUmlResources.forEach [ umlResource, viewResource |
+            EcoreUtil.resolveAll(viewResource)
+            umlResource.mapCopiedUmlElements(viewResource, originalToCopiedElements)
+        ]
+        return originalToCopiedElements
     }
 
     /**
@@ -46,8 +62,9 @@ class ResourceCopier {
      * 
      * @param originalResources The resources to copy
      * @param newResourceSet The resource set to which the copies are attached
+     * @return A mapping from the original elements to their copies contained in the <code>newResourceSet</code>
      */
-    static def copyResources(Iterable<Resource> originalResources, ResourceSet newResourceSet) {
+    static def Map<EObject, EObject> copyResources(Iterable<Resource> originalResources, ResourceSet newResourceSet) {
         copyResources(originalResources, newResourceSet) [true]
     }
 
@@ -62,20 +79,35 @@ class ResourceCopier {
      * implementation, such that after the copy process the {@linkplain InterfaceRelization.clients}
      * reference contains the according element twice. This happens at different places in the
      * UML models.
-     * To circumvent the issue, we store the UML model to a temporary resource and reload it,
-     * because save/load properly handles the situation not covered by the copier. 
+     * To circumvent the issue, we save the UML model to an in-memory buffer and load it into a new
+     * resource with the same URI, because save/load properly handles the situation not covered by the copier.
+     * The buffer is used instead of a temporary file to avoid writing to and reading from the file system.
+     * The references of the loaded copy are not resolved yet.
+     */
+    private static def Resource copyUmlResource(Resource originalResource, ResourceSet newResourceSet) {
+        val serializedResource = new ByteArrayOutputStream
+        // saving resets the modification state of the original resource, which has to be preserved
+        val originalResourceModified = originalResource.modified
+        originalResource.save(serializedResource, null)
+        originalResource.modified = originalResourceModified
+        val viewResource = newResourceSet.createResource(originalResource.URI).checkNotNull(
+            "Cannot create view resource: %s", originalResource.URI)
+        viewResource.load(new ByteArrayInputStream(serializedResource.toByteArray), null)
+        return viewResource
+    }
+
+    /**
+     * Maps the elements of the given UML resource to their copies in the given view resource via their URI
+     * fragments, which are based on the UML element IDs.
      */
-    private static def void copyUmlResource(Resource originalResource, ResourceSet newResourceSet) {
-        val originalURI = originalResource.URI
-        val tempFilePath = Files.createTempFile(null, "." + originalURI.fileExtension)
-        val tempURI = URI.createFileURI(tempFilePath.toString)
-        originalResource.URI = tempURI
-        originalResource.save(null)
-        originalResource.URI = originalURI
-        val viewResource = newResourceSet.getResource(tempURI, true)
-        viewResource.URI = originalURI
-        Files.delete(tempFilePath)
-        EcoreUtil.resolveAll(viewResource)
+    private static def void mapCopiedUmlElements(Resource originalResource, Resource viewResource,
+        Map<EObject, EObject> originalToCopiedElements) {
+        originalResource.allContents.forEach [ originalElement |
+            val copiedElement = viewResource.getEObject(originalResource.getURIFragment(originalElement))
+            if (copiedElement !== null) {
+                originalToCopiedElements.put(originalElement, copiedElement)
+            }
+        ]
     }
 
     /**
@@ -87,7 +119,7 @@ class ResourceCopier {
      * element duplication.
      */
     private static def void copyResourcesInternal(Iterable<Resource> originalResources, ResourceSet newResourceSet,
-        (EObject)=>Boolean rootElementPredicate) {
+        (EObject)=>Boolean rootElementPredicate, Map<EObject, EObject> originalToCopiedElements) {
         val copier = new Copier(true)
         for (originalResource : originalResources) {
             val elementsContainedInResource = originalResource.contents.filter [
@@ -106,6 +138,12 @@ class ResourceCopier {
             viewResource.contents.addAll(mappedRootElements)
             newResourceSet.resources += viewResource
         }
+        // copies of unselected root elements are not contained in the new resource set, so they are not mapped
+        copier.forEach [ originalElement, copiedElement |
+            if (copiedElement.eResource !== null) {
+                originalToCopiedElements.put(originalElement, copiedElement)
+            }
+        ]
     }
 
     private static def boolean isContainedInOtherThanOwnResource(EObject eObject, Iterable<Resource> resources) {
@@ -2,6 +2,7 @@ package tools.vitruv.framework.vsum
 
 import java.io.File
 import java.nio.file.Path
+import java.time.Duration
 import java.util.Collection
 import java.util.HashSet
 import java.util.Set
@@ -19,6 +20,7 @@ import tools.vitruv.framework.vsum.helper.VsumFileSystemLayout
 import tools.vitruv.framework.vsum.internal.InternalVirtualModel
 import tools.vitruv.framework.vsum.internal.VirtualModelImpl
 
+import static com.google.common.base.Preconditions.checkArgument
 import static com.google.common.base.Preconditions.checkState
 
 class VirtualModelBuilder {
@@ -28,6 +30,10 @@ class VirtualModelBuilder {
 	val Set<ChangePropagationSpecification> changePropagationSpecifications = new HashSet()
 	var Path storageFolder
 	var InternalUserInteractor userInteractor
+	var Duration maximumSaveDelay
+	var int maximumUnsavedChanges
+	var boolean lazyModelLoading
+	var int maximumLoadedModels
 	
 	def VirtualModelBuilder withDomainRepository(VitruvDomainRepository repository) {
 		checkState(domains.isEmpty, "You must not configure a domain provider registry after configuring individual domains!")
@@ -58,6 +64,41 @@ class VirtualModelBuilder {
 		return this
 	}
 	
+	/**
+	 * Lets the virtual model save its models in the background instead of after each propagated change, so
+	 * that change propagation does not wait for the models to be written. The models are saved when the
+	 * given delay has passed since the first change that was not saved yet, or as soon as the given number
+	 * of propagated changes was not saved. {@link InternalVirtualModel#flush} saves all pending changes
+	 * immediately and {@link InternalVirtualModel#dispose} saves them before releasing the virtual model.
+	 */
+	def VirtualModelBuilder withBackgroundSaving(Duration maximumSaveDelay, int maximumUnsavedChanges) {
+		checkArgument(maximumSaveDelay !== null, "maximum save delay must not be null")
+		checkArgument(maximumUnsavedChanges > 0, "maximum number of unsaved changes must be positive")
+		this.maximumSaveDelay = maximumSaveDelay
+		this.maximumUnsavedChanges = maximumUnsavedChanges
+		return this
+	}
+	
+	/**
+	 * Lets the virtual model load its existing models only when they are accessed for the first time instead
+	 * of loading all of them when the virtual model is built. Creating a view still loads all models.
+	 */
+	def VirtualModelBuilder withLazyModelLoading() {
+		this.lazyModelLoading = true
+		return this
+	}
+	
+	/**
+	 * Limits the number of models the virtual model keeps loaded and enables lazy model loading. Whenever more
+	 * models are loaded after saving them, the least recently accessed models are unloaded. Unloaded models are
+	 * loaded again when they are accessed, e.g., by a change, a correspondence lookup or a view.
+	 */
+	def VirtualModelBuilder withMaximumLoadedModels(int maximumLoadedModels) {
+		checkArgument(maximumLoadedModels > 0, "maximum number of loaded models must be positive")
+		this.maximumLoadedModels = maximumLoadedModels
+		return withLazyModelLoading()
+	}
+	
 	def VirtualModelBuilder withDomains(VitruvDomain... domains) {
 		for (domain : domains) withDomain(domain)
 		return this
@@ -158,7 +199,9 @@ class VirtualModelBuilder {
 
 		val fileSystemLayout = new VsumFileSystemLayout(storageFolder)
 		fileSystemLayout.prepare()
-		val vsum = new VirtualModelImpl(fileSystemLayout, userInteractor, domainRepository, viewTypeRepository, changeSpecificationRepository)
+		val vsum = new VirtualModelImpl(fileSystemLayout, userInteractor, domainRepository, viewTypeRepository,
+			changeSpecificationRepository, maximumSaveDelay, maximumUnsavedChanges, lazyModelLoading,
+			maximumLoadedModels)
 		vsum.loadExistingModels()
 		return vsum
 	}
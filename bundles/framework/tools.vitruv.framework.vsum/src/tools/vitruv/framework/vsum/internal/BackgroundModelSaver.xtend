@@ -0,0 +1,118 @@
+package tools.vitruv.framework.vsum.internal
+
+import java.time.Duration
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.ScheduledFuture
+import java.util.concurrent.TimeUnit
+import org.apache.log4j.Logger
+
+import static com.google.common.base.Preconditions.checkArgument
+import static com.google.common.base.Preconditions.checkState
+
+/**
+ * Saves the models of a virtual model on a background thread after changes were propagated to them.
+ * A save is performed when the given delay has passed since the first change that has not been saved
+ * yet, or as soon as the given number of unsaved changes is reached. The save operation is responsible
+ * for synchronizing with change propagation, such that models are never modified while they are saved.
+ * <p>
+ * If a background save fails, the failure is reported by the next call to {@link #saveLater} or
+ * {@link #cancelScheduledSave}.
+ */
+package class BackgroundModelSaver implements AutoCloseable {
+	static val LOGGER = Logger.getLogger(BackgroundModelSaver)
+	static val THREAD_NAME = "vitruv-background-save"
+	val Runnable save
+	val Duration maximumDelay
+	val int maximumUnsavedChanges
+	val ScheduledExecutorService executor
+	var int unsavedChanges = 0
+	var ScheduledFuture<?> scheduledSave = null
+	var RuntimeException failure = null
+
+	new(Runnable save, Duration maximumDelay, int maximumUnsavedChanges) {
+		checkArgument(!maximumDelay.negative, "maximum save delay must not be negative but was %s", maximumDelay)
+		checkArgument(maximumUnsavedChanges > 0, "maximum number of unsaved changes must be positive but was %s",
+			maximumUnsavedChanges)
+		this.save = save
+		this.maximumDelay = maximumDelay
+		this.maximumUnsavedChanges = maximumUnsavedChanges
+		this.executor = Executors.newSingleThreadScheduledExecutor [
+			new Thread(it, THREAD_NAME) => [daemon = true]
+		]
+	}
+
+	/**
+	 * Records that a change was propagated and schedules a save of the models accordingly.
+	 *
+	 * @throws IllegalStateException if a previous background save failed
+	 */
+	synchronized def void saveLater() {
+		checkNoFailure()
+		checkState(!executor.isShutdown, "background saving has already been stopped")
+		unsavedChanges++
+		if (unsavedChanges >= maximumUnsavedChanges) {
+			schedule(Duration.ZERO)
+		} else if (scheduledSave === null) {
+			schedule(maximumDelay)
+		}
+	}
+
+	/**
+	 * Cancels a scheduled save, because the models are about to be saved otherwise.
+	 *
+	 * @throws IllegalStateException if a previous background save failed
+	 */
+	synchronized def void cancelScheduledSave() {
+		scheduledSave?.cancel(false)
+		scheduledSave = null
+		unsavedChanges = 0
+		checkNoFailure()
+	}
+
+	private def void schedule(Duration delay) {
+		scheduledSave?.cancel(false)
+		val Runnable task = [saveInBackground()]
+		scheduledSave = executor.schedule(task, delay.toMillis, TimeUnit.MILLISECONDS)
+	}
+
+	private def void saveInBackground() {
+		synchronized (this) {
+			scheduledSave = null
+			unsavedChanges = 0
+		}
+		try {
+			save.run()
+		} catch (RuntimeException e) {
+			LOGGER.error("Saving models in the background failed", e)
+			synchronized (this) {
+				failure = failure ?: e
+			}
+		}
+	}
+
+	private def void checkNoFailure() {
+		if (failure !== null) {
+			val reportedFailure = failure
+			failure = null
+			throw new IllegalStateException("Saving models in the background failed", reportedFailure)
+		}
+	}
+
+	/**
+	 * Stops background saving and waits until a save that is currently running has finished. Saves that are
+	 * scheduled but not running yet are cancelled, so the models have to be saved afterwards.
+	 */
+	override close() {
+		synchronized (this) {
+			scheduledSave?.cancel(false)
+			scheduledSave = null
+			executor.shutdown()
+		}
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS)
+		} catch (InterruptedException e) {
+			Thread.currentThread.interrupt()
+		}
+	}
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList
 import java.util.List
 import org.apache.log4j.Logger
 import org.eclipse.emf.ecore.EObject
+import tools.vitruv.framework.change.compaction.ChangeCompactor
 import tools.vitruv.framework.change.description.CompositeChange
 import tools.vitruv.framework.change.description.PropagatedChange
 import tools.vitruv.framework.change.description.TransactionalChange
@@ -33,6 +34,7 @@ package class ChangePropagator {
 	val ModelRepository resourceRepository
 	val ChangePropagationSpecificationProvider changePropagationProvider
 	val InternalUserInteractor userInteractor
+	val ChangeCompactor changeCompactor = new ChangeCompactor
 
 	new(ModelRepository resourceRepository, ChangePropagationSpecificationProvider changePropagationProvider,
 		VitruvDomainRepository domainRepository, InternalUserInteractor userInteractor) {
@@ -56,6 +58,14 @@ package class ChangePropagator {
 		return new ChangePropagation(this, resolvedChange, changedDomain, null).propagateChanges()
 	}
 
+	/**
+	 * Returns statistics about the changes compacted before propagating them, which is only done for changes
+	 * of domains that {@linkplain VitruvDomain#shouldCompactChanges should be compacted}.
+	 */
+	def getChangeCompactionStatistics() {
+		changeCompactor.statistics
+	}
+
 	@FinalFieldsConstructor
 	private static class ChangePropagation implements ChangePropagationObserver, UserInteractionListener {
 		extension val ChangePropagator outer
@@ -67,12 +77,25 @@ package class ChangePropagator {
 		val List<UserInteractionBase> userInteractions = new ArrayList
 
 		def private propagateChanges() {
-			val result = sourceChange.transactionalChangeSequence.flatMapFixed[propagateSingleChange(it)]
+			val result = sourceChange.transactionalChangeSequence.map[compactIfEnabled].filter[containsConcreteChange].
+				flatMapFixed[propagateSingleChange(it)]
 			handleObjectsWithoutResource()
 			changedResources.forEach[modified = true]
 			return result
 		}
 
+		def private TransactionalChange compactIfEnabled(TransactionalChange change) {
+			if (sourceDomain.shouldCompactChanges) {
+				val compactedChange = changeCompactor.compact(change)
+				if (logger.isDebugEnabled) {
+					logger.debug('''Compacted «change.EChanges.size» changes to «compactedChange.EChanges.size»''')
+				}
+				compactedChange
+			} else {
+				change
+			}
+		}
+
 		def private List<PropagatedChange> propagateSingleChange(TransactionalChange change) {
 			checkState(!change.affectedEObjects.isNullOrEmpty, "There are no objects affected by this change:%s%s",
 				System.lineSeparator, change)
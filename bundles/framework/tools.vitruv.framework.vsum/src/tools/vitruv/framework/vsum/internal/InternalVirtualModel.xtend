@@ -1,6 +1,7 @@
 package tools.vitruv.framework.vsum.internal
 
 import org.eclipse.emf.common.util.URI
+import tools.vitruv.framework.change.compaction.ChangeCompactionStatistics
 import tools.vitruv.framework.correspondence.CorrespondenceModel
 import tools.vitruv.framework.views.ChangeableViewSource
 import tools.vitruv.framework.vsum.VirtualModel
@@ -14,5 +15,24 @@ interface InternalVirtualModel extends VirtualModel, ChangeableViewSource {
 
 	def void removePropagatedChangeListener(PropagatedChangeListener propagatedChangeListener)
 
+	/**
+	 * Saves all models and the correspondences that were modified but not saved yet. This is only necessary
+	 * if the models are saved in the background, as they are saved after each propagated change otherwise.
+	 */
+	def void flush()
+
+	/**
+	 * Returns statistics about the models of this virtual model that are registered and loaded.
+	 */
+	def ModelLoadingStatistics getModelLoadingStatistics()
+
+	/**
+	 * Returns statistics about the changes that were compacted before propagating them.
+	 */
+	def ChangeCompactionStatistics getChangeCompactionStatistics()
+
+	/**
+	 * Releases the virtual model. Models and correspondences that were not saved yet are saved before.
+	 */
 	def void dispose()
 }
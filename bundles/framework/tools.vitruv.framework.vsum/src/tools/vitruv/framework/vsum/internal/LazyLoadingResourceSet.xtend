@@ -0,0 +1,42 @@
+package tools.vitruv.framework.vsum.internal
+
+import java.util.HashSet
+import java.util.Set
+import org.eclipse.emf.common.util.URI
+import org.eclipse.emf.ecore.resource.Resource
+import org.eclipse.emf.ecore.resource.ResourceSet
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl
+
+/**
+ * A {@link ResourceSet} containing resources that are registered without being loaded. Such a resource is
+ * loaded as soon as it is requested from the resource set, even if loading on demand is not requested,
+ * because it represents a persisted model that is only considered empty because it was not loaded yet.
+ */
+package class LazyLoadingResourceSet extends ResourceSetImpl {
+	val Set<Resource> unloadedResources = new HashSet
+
+	/**
+	 * Creates a resource for the given {@link URI} that is loaded when it is requested for the first time.
+	 */
+	def Resource createUnloadedResource(URI uri) {
+		val resource = createResource(uri)
+		markUnloaded(resource)
+		return resource
+	}
+
+	/**
+	 * Marks the given resource of this resource set, which has been unloaded, to be loaded again when it is
+	 * requested for the next time.
+	 */
+	def void markUnloaded(Resource resource) {
+		unloadedResources += resource
+	}
+
+	override getResource(URI uri, boolean loadOnDemand) {
+		val resource = super.getResource(uri, loadOnDemand)
+		if (resource !== null && unloadedResources.remove(resource) && !resource.loaded) {
+			demandLoadHelper(resource)
+		}
+		return resource
+	}
+}
@@ -5,27 +5,58 @@ import org.apache.log4j.Logger
 import org.eclipse.emf.common.util.URI
 import org.eclipse.emf.ecore.EObject
 import org.eclipse.emf.ecore.resource.Resource
-import org.eclipse.xtend.lib.annotations.Accessors
+import tools.vitruv.framework.util.AtomicFileUtil
 
 import static com.google.common.base.Preconditions.checkArgument
+import static com.google.common.base.Preconditions.checkState
+import static tools.vitruv.framework.util.AtomicFileUtil.saveAtomically
 
 class ModelInstance {
 	static val LOGGER = Logger.getLogger(ModelInstance)
-	@Accessors(PUBLIC_GETTER)
-	Resource resource
+	val Resource resource
+	var boolean loadPending
 
 	new(Resource resource) {
+		this(resource, false)
+	}
+
+	/**
+	 * Creates a model instance for the given resource. If the resource is to be loaded lazily, it is loaded
+	 * when it is accessed via {@link #getResource} for the first time, unless it was loaded before.
+	 */
+	new(Resource resource, boolean loadLazily) {
 		checkArgument(resource !== null, "cannot create a model instance for a null resource")
 		this.resource = resource
+		this.loadPending = loadLazily
 		LOGGER.debug('''Create model instance for resource with URI: «URI»''')
 	}
 
+	def Resource getResource() {
+		if (loadPending) {
+			loadPending = false
+			if (!resource.loaded) {
+				LOGGER.debug('''Load resource: «resource»''')
+				try {
+					resource.load(resource.resourceSet?.loadOptions)
+				} catch (IOException e) {
+					LOGGER.error('''Model could not be loaded: «URI»''', e)
+					throw new IllegalStateException('''Could not load URI «URI»''', e)
+				}
+			}
+		}
+		return resource
+	}
+
+	def boolean isLoaded() {
+		!loadPending || resource.loaded
+	}
+
 	def URI getURI() {
 		return resource.URI
 	}
 
 	def void addRoot(EObject root) {
-		resource.contents += root
+		getResource().contents += root
 		resource.modified = true
 		LOGGER.debug('''Add root to resource: «resource»''')
 	}
@@ -34,8 +65,23 @@ class ModelInstance {
 		resource.modified = true
 	}
 
+	def boolean isModified() {
+		resource.modified
+	}
+
 	def boolean isEmpty() {
-		resource.contents.isEmpty
+		loaded && resource.contents.isEmpty
+	}
+
+	/**
+	 * Unloads the resource of this model, which must not have unsaved modifications. The resource is loaded
+	 * again when it is accessed via {@link #getResource} for the next time.
+	 */
+	def void unload() {
+		checkState(!resource.modified, "cannot unload model %s with unsaved modifications", URI)
+		LOGGER.debug('''Unload resource: «resource»''')
+		resource.unload()
+		loadPending = true
 	}
 
 	def void save() {
@@ -44,7 +90,7 @@ class ModelInstance {
 		}
 		LOGGER.debug('''Save resource: «resource»''')
 		try {
-			resource.save(null)
+			saveAtomically(resource)
 			resource.modified = false
 		} catch (IOException e) {
 			LOGGER.error('''Model could not be saved: «URI»''', e)
@@ -52,6 +98,42 @@ class ModelInstance {
 		}
 	}
 
+	/**
+	 * Serializes the resource of this model to memory, such that it can be saved with {@link #save(byte[])}.
+	 * The resource is only read and not marked as saved, so the models of a resource set can be serialized
+	 * concurrently. Returns {@code null} if the resource is not stored in the local file system, as such a
+	 * resource can only be saved as a whole by {@link #save(byte[])}.
+	 */
+	def byte[] serialize() {
+		if (!URI.isFile) {
+			return null
+		}
+		try {
+			return AtomicFileUtil.serialize(resource)
+		} catch (IOException e) {
+			LOGGER.error('''Model could not be serialized: «URI»''', e)
+			throw new IllegalStateException('''Could not save URI «URI»''', e)
+		}
+	}
+
+	/**
+	 * Saves the resource of this model with the content returned by {@link #serialize()}, or like
+	 * {@link #save()} if there is no such content.
+	 */
+	def void save(byte[] serialization) {
+		if (serialization === null) {
+			save()
+			return
+		}
+		LOGGER.debug('''Save resource: «resource»''')
+		try {
+			AtomicFileUtil.writeAtomically(resource, serialization)
+		} catch (IOException e) {
+			LOGGER.error('''Model could not be saved: «URI»''', e)
+			throw new IllegalStateException('''Could not save URI «URI»''', e)
+		}
+	}
+
 	def void delete() {
 		LOGGER.debug('''Delete resource: «resource»''')
 		try {
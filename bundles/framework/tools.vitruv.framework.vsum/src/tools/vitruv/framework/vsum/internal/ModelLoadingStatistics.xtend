@@ -0,0 +1,21 @@
+package tools.vitruv.framework.vsum.internal
+
+import org.eclipse.xtend.lib.annotations.Data
+
+/**
+ * Statistics about the models of a virtual model that are loaded, allowing to check how many models are kept
+ * in memory and how often models are unloaded and loaded again.
+ */
+@Data
+class ModelLoadingStatistics {
+	/** The number of models registered in the virtual model, whether they are loaded or not */
+	val int registeredModels
+	/** The number of registered models that are currently loaded */
+	val int loadedModels
+	/** The maximum number of models kept loaded, or 0 if models are never unloaded */
+	val int maximumLoadedModels
+	/** The number of times a registered model was loaded, including loads after unloading it */
+	val long modelLoads
+	/** The number of times a model was unloaded to limit the number of loaded models */
+	val long modelUnloads
+}
@@ -9,6 +9,10 @@ import java.util.Collection
 import org.eclipse.emf.ecore.resource.Resource
 
 package interface ModelRepository extends ResourceAccess, AutoCloseable {
+	/**
+	 * Resolves the given change, which may be resolved in another resource set, in the models
+	 * of this repository and applies it. Returns the resolved change.
+	 */
 	def VitruviusChange applyChange(VitruviusChange change)
 
 	def CorrespondenceModel getCorrespondenceModel()
@@ -28,4 +32,6 @@ package interface ModelRepository extends ResourceAccess, AutoCloseable {
 	def Iterable<? extends TransactionalChange> endRecording()
 
 	def Collection<Resource> getModelResources()
+
+	def ModelLoadingStatistics getModelLoadingStatistics()
 }
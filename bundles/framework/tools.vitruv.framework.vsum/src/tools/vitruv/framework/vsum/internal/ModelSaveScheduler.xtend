@@ -0,0 +1,65 @@
+package tools.vitruv.framework.vsum.internal
+
+import java.util.Collection
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+
+import static com.google.common.base.Preconditions.checkArgument
+
+import static extension edu.kit.ipd.sdq.commons.util.java.lang.IterableUtil.mapFixed
+
+/**
+ * Saves {@link ModelInstance}s by serializing them in parallel on a bounded number of threads. The serialized
+ * models are written and marked as saved by the thread requesting the save, as EMF does not support modifying
+ * the resources of a resource set concurrently, whereas serializing only reads them. The models must not be
+ * modified while they are saved. Threads are only kept alive for a short time after the last save.
+ */
+package class ModelSaveScheduler implements AutoCloseable {
+	static val THREAD_KEEP_ALIVE_SECONDS = 10
+	static val THREAD_NAME = "vitruv-model-save"
+	val ExecutorService executor
+
+	new(int maximumParallelSaves) {
+		checkArgument(maximumParallelSaves > 0, "number of parallel saves must be positive but was %s",
+			maximumParallelSaves)
+		this.executor = new ThreadPoolExecutor(maximumParallelSaves, maximumParallelSaves, THREAD_KEEP_ALIVE_SECONDS,
+			TimeUnit.SECONDS, new LinkedBlockingQueue, [new Thread(it, THREAD_NAME) => [daemon = true]]) => [
+			allowCoreThreadTimeOut(true)
+		]
+	}
+
+	/**
+	 * Saves the given models and returns when all of them have been saved. If serializing any of the models
+	 * fails, the failure is rethrown after the serializations of all other models have finished and no model
+	 * is written.
+	 *
+	 * @throws IllegalStateException if a model could not be saved
+	 */
+	def void save(Collection<ModelInstance> modelInstances) {
+		val modifiedModelInstances = modelInstances.filter[modified].toList
+		if (modifiedModelInstances.size <= 1) {
+			modifiedModelInstances.forEach[save()]
+			return
+		}
+		val serializations = modifiedModelInstances.mapFixed [ modelInstance |
+			CompletableFuture.supplyAsync([modelInstance.serialize()], executor)
+		]
+		try {
+			CompletableFuture.allOf(serializations).join()
+		} catch (CompletionException e) {
+			val cause = e.cause
+			throw if (cause instanceof RuntimeException) cause else new IllegalStateException(cause)
+		}
+		modifiedModelInstances.forEach [ modelInstance, index |
+			modelInstance.save(serializations.get(index).join())
+		]
+	}
+
+	override close() {
+		executor.shutdown()
+	}
+}
@@ -1,7 +1,12 @@
 package tools.vitruv.framework.vsum.internal
 
+import java.util.ArrayList
+import java.util.Collections
 import java.util.HashMap
+import java.util.LinkedHashMap
+import java.util.List
 import java.util.Map
+import java.util.Set
 import org.apache.log4j.Logger
 import org.eclipse.emf.ecore.EObject
 import org.eclipse.emf.ecore.resource.Resource
@@ -16,6 +21,7 @@ import static extension edu.kit.ipd.sdq.commons.util.org.eclipse.emf.ecore.resou
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl
 import tools.vitruv.framework.vsum.helper.VsumFileSystemLayout
 import tools.vitruv.framework.change.recording.ChangeRecorder
+import static com.google.common.base.Preconditions.checkArgument
 import static com.google.common.base.Preconditions.checkState
 import tools.vitruv.framework.util.ResourceRegistrationAdapter
 import static tools.vitruv.framework.correspondence.CorrespondenceModelFactory.createCorrespondenceModel
@@ -24,23 +30,61 @@ import org.eclipse.emf.common.util.URI
 import java.nio.file.Files
 import java.nio.file.NoSuchFileException
 import tools.vitruv.framework.change.description.VitruviusChange
+import static tools.vitruv.framework.util.AtomicFileUtil.writeAtomically
+import org.eclipse.emf.common.notify.Notification
+import org.eclipse.emf.common.notify.impl.AdapterImpl
+import tools.vitruv.framework.change.echange.EChange
+import tools.vitruv.framework.change.echange.eobject.DeleteEObject
+import tools.vitruv.framework.change.echange.feature.reference.RemoveEReference
+import tools.vitruv.framework.change.echange.feature.reference.ReplaceSingleValuedEReference
+import tools.vitruv.framework.change.echange.root.RemoveRootEObject
 
 package class ResourceRepositoryImpl implements ModelRepository {
 	static val logger = Logger.getLogger(ResourceRepositoryImpl)
-	val ResourceSet modelsResourceSet
+	static val MAXIMUM_PARALLEL_SAVES = Math.min(Runtime.runtime.availableProcessors, 8)
+	val LazyLoadingResourceSet modelsResourceSet
 	val ResourceSet correspondencesResourceSet
 	val VitruvDomainRepository domainRepository
 	val Map<URI, ModelInstance> modelInstances = new HashMap()
 	val VsumFileSystemLayout fileSystemLayout
 	val InternalCorrespondenceModel correspondenceModel
 	val Map<VitruvDomain, ChangeRecorder> domainToRecorder = new HashMap()
+	val ModelSaveScheduler saveScheduler = new ModelSaveScheduler(MAXIMUM_PARALLEL_SAVES)
+	var List<String> writtenModelUris = null
 	var isRecording = false
 	var isLoading = false
+	val boolean lazyModelLoading
+	val int maximumLoadedModels
+	// loaded models in the order of their last access, starting with the least recently accessed one
+	val Set<ModelInstance> loadedModelsByAccess = Collections.newSetFromMap(
+		new LinkedHashMap<ModelInstance, Boolean>(16, 0.75f, true))
+	var long modelLoads = 0
+	var long modelUnloads = 0
 
 	new(VsumFileSystemLayout fileSystemLayout, VitruvDomainRepository domainRepository) {
+		this(fileSystemLayout, domainRepository, false)
+	}
+
+	new(VsumFileSystemLayout fileSystemLayout, VitruvDomainRepository domainRepository, boolean lazyModelLoading) {
+		this(fileSystemLayout, domainRepository, lazyModelLoading, 0)
+	}
+
+	/**
+	 * Creates a repository that, if lazy model loading is enabled, only registers the existing models when
+	 * loading them and loads each of them when it is accessed for the first time. If a maximum number of
+	 * loaded models is given, the least recently accessed models without unsaved modifications are unloaded
+	 * after saving the models whenever more models are loaded. They are loaded again when they are accessed.
+	 */
+	new(VsumFileSystemLayout fileSystemLayout, VitruvDomainRepository domainRepository, boolean lazyModelLoading,
+		int maximumLoadedModels) {
+		checkArgument(maximumLoadedModels >= 0, "maximum number of loaded models must not be negative but was %s",
+			maximumLoadedModels)
 		this.domainRepository = domainRepository
 		this.fileSystemLayout = fileSystemLayout
-		this.modelsResourceSet = new ResourceSetImpl().withGlobalFactories()
+		this.lazyModelLoading = lazyModelLoading
+		this.maximumLoadedModels = maximumLoadedModels
+		this.modelsResourceSet = new LazyLoadingResourceSet()
+		this.modelsResourceSet.withGlobalFactories()
 		this.correspondencesResourceSet = new ResourceSetImpl().withGlobalFactories()
 		this.correspondenceModel = createCorrespondenceModel(fileSystemLayout.correspondencesURI)
 		this.modelsResourceSet.eAdapters += new ResourceRegistrationAdapter [
@@ -55,16 +99,24 @@ package class ResourceRepositoryImpl implements ModelRepository {
 		isLoading = false
 	}
 
-	private def writeModelsFile() {
-		Files.write(fileSystemLayout.modelsNamesFilesPath, modelsResourceSet.resources.map[URI.toString])
+	private def writeModelsFile(Set<Resource> excludedResources) {
+		val modelUris = modelsResourceSet.resources.filter[!excludedResources.contains(it)].map[URI.toString].toList
+		if (modelUris != writtenModelUris) {
+			writeAtomically(fileSystemLayout.modelsNamesFilesPath, modelUris)
+			writtenModelUris = modelUris
+		}
 	}
 
 	private def readModelsFile() {
 		try {
 			for (modelPath : Files.readAllLines(fileSystemLayout.modelsNamesFilesPath)) {
 				val uri = URI.createURI(modelPath)
-				modelsResourceSet.loadOrCreateResource(uri)
-				createOrLoadModel(uri)
+				if (lazyModelLoading && (uri.isFile || uri.isPlatform)) {
+					registerUnloadedModel(uri)
+				} else {
+					modelsResourceSet.loadOrCreateResource(uri)
+					createOrLoadModel(uri)
+				}
 			}
 		} catch (NoSuchFileException e) {
 			// There are no existing models, so don't do anything
@@ -76,7 +128,15 @@ package class ResourceRepositoryImpl implements ModelRepository {
 	}
 
 	override getModel(URI modelURI) {
-		modelInstances.get(modelURI)
+		val modelInstance = modelInstances.get(modelURI)
+		modelInstance?.markAccessed()
+		return modelInstance
+	}
+
+	private def void markAccessed(ModelInstance modelInstance) {
+		if (maximumLoadedModels > 0 && modelInstance.loaded) {
+			loadedModelsByAccess += modelInstance
+		}
 	}
 
 	private def getCreateOrLoadModel(URI modelURI) {
@@ -94,9 +154,76 @@ package class ResourceRepositoryImpl implements ModelRepository {
 		val modelInstance = new ModelInstance(resource)
 		this.modelInstances.put(modelURI, modelInstance)
 		modelInstance.registerRecorder()
+		modelInstance.markAccessed()
 		return modelInstance
 	}
 
+	/**
+	 * Registers the model at the given URI without loading it. The model is recorded as soon as it is loaded,
+	 * either because it is accessed via its {@link ModelInstance} or because the resource set loads it.
+	 */
+	def private registerUnloadedModel(URI modelURI) {
+		checkState(getDomainForURI(modelURI) !== null,
+			"Cannot load the model at the URI '%s' because no domain is registered for that URI", modelURI)
+		val resource = modelsResourceSet.createUnloadedResource(modelURI)
+		val modelInstance = new ModelInstance(resource, true)
+		this.modelInstances.put(modelURI, modelInstance)
+		modelInstance.recordWhenLoaded(resource)
+	}
+
+	def private recordWhenLoaded(ModelInstance modelInstance, Resource resource) {
+		resource.eAdapters += new AdapterImpl {
+			override notifyChanged(Notification notification) {
+				if (notification.getFeatureID(Resource) == Resource.RESOURCE__IS_LOADED && notification.newBooleanValue) {
+					resource.eAdapters -= this
+					modelLoads++
+					modelInstance.registerRecorder()
+					modelInstance.markAccessed()
+				}
+			}
+		}
+	}
+
+	/**
+	 * Unloads the given model after detaching its recorder and releasing the correspondences of its elements,
+	 * such that neither keeps its elements in memory. The model is loaded and recorded again when it is accessed.
+	 */
+	def private unloadModel(ModelInstance modelInstance) {
+		val resource = modelInstance.resource
+		domainToRecorder.get(getDomainForURI(modelInstance.URI))?.removeFromRecording(resource)
+		correspondenceModel.releaseCorrespondencesOf(resource)
+		modelInstance.unload()
+		modelsResourceSet.markUnloaded(resource)
+		modelInstance.recordWhenLoaded(resource)
+		modelUnloads++
+	}
+
+	/**
+	 * Unloads the least recently accessed models until at most the maximum number of loaded models is loaded.
+	 * Only persisted models without unsaved modifications are unloaded, such that they can be loaded again.
+	 */
+	def private unloadLeastRecentlyAccessedModels() {
+		if (maximumLoadedModels == 0) {
+			return
+		}
+		val iterator = loadedModelsByAccess.iterator
+		while (loadedModelsByAccess.size > maximumLoadedModels && iterator.hasNext) {
+			val modelInstance = iterator.next()
+			if (!modelInstance.loaded) {
+				iterator.remove()
+			} else if (modelInstance.canBeUnloaded) {
+				iterator.remove()
+				modelInstance.unloadModel()
+			}
+		}
+	}
+
+	def private canBeUnloaded(ModelInstance modelInstance) {
+		val uri = modelInstance.URI
+		!modelInstance.modified && !modelInstance.empty && (uri.isFile || uri.isPlatform) &&
+			modelsResourceSet.URIConverter.exists(uri, null)
+	}
+
 	def private void registerRecorder(ModelInstance modelInstance) {
 		// Only monitor modifiable models (file / platform URIs, not pathmap URIs)
 		if (modelInstance.URI.isFile || modelInstance.URI.isPlatform) {
@@ -114,20 +241,36 @@ package class ResourceRepositoryImpl implements ModelRepository {
 		getCreateOrLoadModel(uri).addRoot(rootEObject)
 	}
 
+	/**
+	 * Saves the modified models in parallel and deletes the empty ones. The correspondences are only saved if
+	 * they or any model were changed, as the references to model elements in the correspondences depend on the
+	 * models. The file containing the model URIs is only written if the set of models changed.
+	 * <p>
+	 * The files are written such that a save that is interrupted leaves no file referring to a file that does
+	 * not exist: the models are saved first, then the file containing the model URIs and the correspondences
+	 * are written, and empty models are only deleted afterwards.
+	 */
 	override void saveOrDeleteModels() {
 		if(logger.isDebugEnabled) logger.debug('''Saving all models of model repository for VSUM «fileSystemLayout»''')
-		val modelInstancesIterator = modelInstances.entrySet.iterator
-		while (modelInstancesIterator.hasNext()) {
-			val modelInstance = modelInstancesIterator.next().value
+		val modifiedModelInstances = new ArrayList<ModelInstance>()
+		val emptyModelInstances = new ArrayList<ModelInstance>()
+		for (modelInstance : modelInstances.values) {
 			if (modelInstance.empty) {
-				modelInstance.delete()
-				modelInstancesIterator.remove()
-			} else {
-				modelInstance.save()
+				emptyModelInstances += modelInstance
+			} else if (modelInstance.modified) {
+				modifiedModelInstances += modelInstance
+				modelInstance.markAccessed()
 			}
 		}
-		correspondenceModel.save()
-		writeModelsFile()
+		saveScheduler.save(modifiedModelInstances)
+		writeModelsFile(emptyModelInstances.map[resource].toSet)
+		if (!emptyModelInstances.empty || !modifiedModelInstances.empty || correspondenceModel.modified) {
+			correspondenceModel.save()
+		}
+		emptyModelInstances.forEach[delete()]
+		modelInstances.values.removeAll(emptyModelInstances)
+		loadedModelsByAccess.removeAll(emptyModelInstances)
+		unloadLeastRecentlyAccessedModels()
 	}
 
 	def private VitruvDomain getDomainForURI(URI uri) {
@@ -144,11 +287,33 @@ package class ResourceRepositoryImpl implements ModelRepository {
 		logger.debug("End recording virtual model")
 		isRecording = false
 		domainToRecorder.values.forEach[endRecording()]
-		return domainToRecorder.values.map[recorder|recorder.change].filter[containsConcreteChange].toList()
+		val changes = domainToRecorder.values.map[recorder|recorder.change].filter[containsConcreteChange].toList()
+		changes.forEach[registerRemovedElements(it)]
+		return changes
 	}
 
 	override VitruviusChange applyChange(VitruviusChange change) {
-		change.resolveAndApply(modelsResourceSet)
+		change.unresolveAndResolveAndApply(modelsResourceSet) => [registerRemovedElements(it)]
+	}
+
+	/**
+	 * Registers the elements removed from their container or resource by the given change at the correspondence
+	 * model, so that only their correspondences have to be checked for removed elements when saving.
+	 */
+	def private void registerRemovedElements(VitruviusChange change) {
+		val removedElements = change.EChanges.map[removedElement].filterNull.toSet
+		if (!removedElements.empty) {
+			correspondenceModel.registerRemovedElements(removedElements)
+		}
+	}
+
+	def private static EObject getRemovedElement(EChange eChange) {
+		switch (eChange) {
+			RemoveEReference<?, ?> case eChange.isContainment: eChange.oldValue
+			ReplaceSingleValuedEReference<?, ?> case eChange.isContainment: eChange.oldValue
+			RemoveRootEObject<?>: eChange.oldValue
+			DeleteEObject<?>: eChange.affectedEObject
+		}
 	}
 
 	override URI getMetadataModelURI(String... metadataKey) {
@@ -160,6 +325,7 @@ package class ResourceRepositoryImpl implements ModelRepository {
 	}
 
 	override close() {
+		saveScheduler.close()
 		domainToRecorder.values.forEach[close()]
 		modelsResourceSet.resources.forEach[unload]
 		correspondencesResourceSet.resources.forEach[unload]
@@ -168,7 +334,13 @@ package class ResourceRepositoryImpl implements ModelRepository {
 	}
 
 	override getModelResources() {
+		modelInstances.values.filter[!loaded].toList.forEach[resource]
 		return modelsResourceSet.resources
 	}
 
+	override getModelLoadingStatistics() {
+		new ModelLoadingStatistics(modelInstances.size, modelInstances.values.filter[loaded].size, maximumLoadedModels,
+			modelLoads, modelUnloads)
+	}
+
 }
@@ -1,6 +1,7 @@
 package tools.vitruv.framework.vsum.internal
 
 import java.nio.file.Path
+import java.time.Duration
 import java.util.LinkedList
 import java.util.List
 import org.apache.log4j.Logger
@@ -31,13 +32,31 @@ class VirtualModelImpl implements InternalVirtualModel {
 	val List<ChangePropagationListener> changePropagationListeners = new LinkedList()
 	val List<PropagatedChangeListener> propagatedChangeListeners = new LinkedList()
 	val extension ChangeDomainExtractor changeDomainExtractor
+	val BackgroundModelSaver backgroundSaver
 
 	new(VsumFileSystemLayout fileSystemLayout, InternalUserInteractor userInteractor,
 		VitruvDomainRepository domainRepository, ViewTypeRepository viewTypeRepository,
 		ChangePropagationSpecificationProvider changePropagationSpecificationProvider) {
+		this(fileSystemLayout, userInteractor, domainRepository, viewTypeRepository,
+			changePropagationSpecificationProvider, null, 0, false, 0)
+	}
+
+	/**
+	 * Creates a virtual model that saves its models in the background if a maximum save delay is given.
+	 * The models are then saved when the given delay has passed since the first unsaved change or when
+	 * the given number of propagated changes has not been saved yet. Otherwise, the models are saved
+	 * after each propagated change. If lazy model loading is enabled, existing models are only loaded when
+	 * they are accessed for the first time. If a maximum number of loaded models is given, the least recently
+	 * accessed models are unloaded after saving whenever more models are loaded.
+	 */
+	new(VsumFileSystemLayout fileSystemLayout, InternalUserInteractor userInteractor,
+		VitruvDomainRepository domainRepository, ViewTypeRepository viewTypeRepository,
+		ChangePropagationSpecificationProvider changePropagationSpecificationProvider, Duration maximumSaveDelay,
+		int maximumUnsavedChanges, boolean lazyModelLoading, int maximumLoadedModels) {
 		this.fileSystemLayout = fileSystemLayout
 		this.viewTypeRepository = viewTypeRepository
-		resourceRepository = new ResourceRepositoryImpl(fileSystemLayout, domainRepository)
+		resourceRepository = new ResourceRepositoryImpl(fileSystemLayout, domainRepository, lazyModelLoading,
+			maximumLoadedModels)
 		changeDomainExtractor = new ChangeDomainExtractor(domainRepository)
 		changePropagator = new ChangePropagator(
 			resourceRepository,
@@ -45,6 +64,9 @@ class VirtualModelImpl implements InternalVirtualModel {
 			domainRepository,
 			userInteractor
 		)
+		backgroundSaver = if (maximumSaveDelay !== null) {
+			new BackgroundModelSaver([save()], maximumSaveDelay, maximumUnsavedChanges)
+		}
 		VirtualModelRegistry.instance.registerVirtualModel(this)
 	}
 
@@ -64,17 +86,26 @@ class VirtualModelImpl implements InternalVirtualModel {
 		this.resourceRepository.saveOrDeleteModels()
 	}
 
+	override synchronized flush() {
+		backgroundSaver?.cancelScheduledSave()
+		save()
+	}
+
 	override synchronized propagateChange(VitruviusChange change) {
 		checkNotNull(change, "change to propagate")
 		checkArgument(change.containsConcreteChange, "This change contains no concrete changes:%s%s",
 			System.lineSeparator, change)
-		val unresolvedChange = change.unresolve()
 
 		LOGGER.info("Start change propagation")
-		startChangePropagation(unresolvedChange)
-
-		val result = changePropagator.propagateChange(unresolvedChange)
-		save()
+		startChangePropagation(change)
+
+		// the change is resolved in the models of this virtual model without creating an unresolved copy first
+		val result = changePropagator.propagateChange(change)
+		if (backgroundSaver !== null) {
+			backgroundSaver.saveLater()
+		} else {
+			save()
+		}
 
 		if (LOGGER.isTraceEnabled) {
 			LOGGER.trace('''
@@ -86,7 +117,7 @@ class VirtualModelImpl implements InternalVirtualModel {
 			''')
 		}
 
-		finishChangePropagation(unresolvedChange)
+		finishChangePropagation(change, result)
 		informPropagatedChangeListeners(result)
 		LOGGER.info("Finished change propagation")
 		return result
@@ -97,8 +128,8 @@ class VirtualModelImpl implements InternalVirtualModel {
 		changePropagationListeners.forEach[startedChangePropagation]
 	}
 
-	private def void finishChangePropagation(VitruviusChange change) {
-		changePropagationListeners.forEach[finishedChangePropagation]
+	private def void finishChangePropagation(VitruviusChange change, List<PropagatedChange> result) {
+		changePropagationListeners.forEach[finishedChangePropagation(result)]
 		if(LOGGER.isDebugEnabled) LOGGER.debug('''Finished synchronizing change: «change»''')
 	}
 
@@ -164,10 +195,22 @@ class VirtualModelImpl implements InternalVirtualModel {
 	}
 
 	override void dispose() {
+		if (backgroundSaver !== null) {
+			backgroundSaver.close()
+			flush()
+		}
 		resourceRepository.close()
 		VirtualModelRegistry.instance.deregisterVirtualModel(this)
 	}
 
+	override synchronized getModelLoadingStatistics() {
+		this.resourceRepository.modelLoadingStatistics
+	}
+
+	override synchronized getChangeCompactionStatistics() {
+		this.changePropagator.changeCompactionStatistics
+	}
+
 	override getViewSourceModels() {
 		resourceRepository.modelResources
 	}
@@ -0,0 +1,68 @@
+package tools.vitruv.framework.benchmarks;
+
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.createRootWithElements;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.createTemporaryFolder;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.createVirtualModel;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.deleteRecursively;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.getModelUri;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.recordResourceCreation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import tools.vitruv.framework.change.description.PropagatedChange;
+import tools.vitruv.framework.change.description.VitruviusChange;
+import tools.vitruv.framework.vsum.internal.InternalVirtualModel;
+import tools.vitruv.testutils.domains.AllElementTypesDomainProvider;
+
+/**
+ * Measures propagating a change into a virtual model without any change
+ * propagation specification, i.e., the overhead of the virtual model for
+ * applying, recording and persisting a change.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class AllElementTypesPropagationBenchmark {
+	@Param({ "10", "100", "1000" })
+	public int modelSize;
+
+	private Path storageFolder;
+	private InternalVirtualModel virtualModel;
+	private VitruviusChange change;
+
+	@Setup(Level.Invocation)
+	public void createVirtualModel() throws IOException {
+		storageFolder = createTemporaryFolder("allElementTypes");
+		virtualModel = createVirtualModel(storageFolder, Set.of(new AllElementTypesDomainProvider().getDomain()),
+				Set.of());
+		change = recordResourceCreation(
+				getModelUri(storageFolder, "root", BenchmarkModels.ALL_ELEMENT_TYPES_FILE_EXTENSION),
+				createRootWithElements(modelSize));
+	}
+
+	@TearDown(Level.Invocation)
+	public void disposeVirtualModel() throws IOException {
+		virtualModel.dispose();
+		deleteRecursively(storageFolder);
+	}
+
+	@Benchmark
+	public List<PropagatedChange> propagateModelCreation() {
+		return virtualModel.propagateChange(change);
+	}
+}
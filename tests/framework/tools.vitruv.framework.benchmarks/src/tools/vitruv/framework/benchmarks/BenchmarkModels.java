@@ -0,0 +1,123 @@
+package tools.vitruv.framework.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.plugin.EcorePlugin;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
+
+import allElementTypes.AllElementTypesFactory;
+import allElementTypes.NonRoot;
+import allElementTypes.Root;
+import tools.vitruv.framework.change.description.VitruviusChange;
+import tools.vitruv.framework.change.recording.ChangeRecorder;
+import tools.vitruv.framework.domains.VitruvDomain;
+import tools.vitruv.framework.propagation.ChangePropagationSpecification;
+import tools.vitruv.framework.userinteraction.UserInteractionFactory;
+import tools.vitruv.framework.vsum.VirtualModelBuilder;
+import tools.vitruv.framework.vsum.internal.InternalVirtualModel;
+import tools.vitruv.testutils.metamodels.RandomIdAllElementTypesFactory;
+
+/**
+ * Utilities for creating the models and the file system state used by the
+ * benchmarks.
+ */
+public final class BenchmarkModels {
+	public static final String ALL_ELEMENT_TYPES_FILE_EXTENSION = "allElementTypes";
+	private static final AllElementTypesFactory FACTORY = new RandomIdAllElementTypesFactory();
+	private static boolean metamodelsRegistered = false;
+
+	private BenchmarkModels() {
+	}
+
+	/**
+	 * Registers the metamodels and resource factories of all plugins in a
+	 * standalone environment. May be called multiple times.
+	 */
+	public static synchronized void registerMetamodels() {
+		if (!metamodelsRegistered) {
+			EcorePlugin.ExtensionProcessor.process(null);
+			Resource.Factory.Registry.INSTANCE.getExtensionToFactoryMap().putIfAbsent(ALL_ELEMENT_TYPES_FILE_EXTENSION,
+					new XMIResourceFactoryImpl());
+			metamodelsRegistered = true;
+		}
+	}
+
+	public static ResourceSet createResourceSet() {
+		registerMetamodels();
+		return new ResourceSetImpl();
+	}
+
+	/**
+	 * Creates a {@link Root} containing the given number of {@link NonRoot}
+	 * elements, each with a distinct value.
+	 */
+	public static Root createRootWithElements(int numberOfElements) {
+		Root root = FACTORY.createRoot();
+		for (int i = 0; i < numberOfElements; i++) {
+			root.getMultiValuedContainmentEReference().add(createNonRoot("element" + i));
+		}
+		return root;
+	}
+
+	public static NonRoot createNonRoot(String value) {
+		NonRoot nonRoot = FACTORY.createNonRoot();
+		nonRoot.setValue(value);
+		return nonRoot;
+	}
+
+	/**
+	 * Records the creation of a resource at the given URI containing the given
+	 * root element in a new resource set and returns the unresolved change, which
+	 * can be propagated to a virtual model.
+	 */
+	public static VitruviusChange recordResourceCreation(URI resourceUri, EObject root) {
+		ResourceSet resourceSet = createResourceSet();
+		try (ChangeRecorder recorder = new ChangeRecorder(resourceSet)) {
+			recorder.addToRecording(resourceSet);
+			recorder.beginRecording();
+			resourceSet.createResource(resourceUri).getContents().add(root);
+			return recorder.endRecording().unresolve();
+		}
+	}
+
+	/**
+	 * Creates a virtual model in the given folder for the given domains and change
+	 * propagation specifications. User interactions are not expected to occur.
+	 */
+	public static InternalVirtualModel createVirtualModel(Path storageFolder, Set<VitruvDomain> domains,
+			Set<ChangePropagationSpecification> changePropagationSpecifications) {
+		registerMetamodels();
+		return new VirtualModelBuilder().withStorageFolder(storageFolder)
+				.withUserInteractorForResultProvider(
+						UserInteractionFactory.instance.createPredefinedInteractionResultProvider(null))
+				.withDomains(domains).withChangePropagationSpecifications(changePropagationSpecifications)
+				.buildAndInitialize();
+	}
+
+	public static URI getModelUri(Path storageFolder, String modelName, String fileExtension) {
+		return URI.createFileURI(storageFolder.resolve("model").resolve(modelName + "." + fileExtension).toString());
+	}
+
+	public static Path createTemporaryFolder(String prefix) throws IOException {
+		return Files.createTempDirectory("vitruv-benchmark-" + prefix);
+	}
+
+	public static void deleteRecursively(Path folder) throws IOException {
+		if (folder == null || !Files.exists(folder)) {
+			return;
+		}
+		try (Stream<Path> paths = Files.walk(folder)) {
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package tools.vitruv.framework.benchmarks;
+
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.createNonRoot;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.createResourceSet;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.createRootWithElements;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import allElementTypes.NonRoot;
+import allElementTypes.Root;
+import tools.vitruv.framework.change.description.TransactionalChange;
+import tools.vitruv.framework.change.recording.ChangeRecorder;
+
+/**
+ * Measures recording changes with the {@link ChangeRecorder}, i.e., the time
+ * between beginning and ending a recording including the creation of the
+ * resulting {@link TransactionalChange}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ChangeRecorderBenchmark {
+	private static final int SINK_BATCH_SIZE = 1000;
+
+	@Param({ "10", "100", "1000", "10000" })
+	public int modelSize;
+
+	/**
+	 * Whether the recorder rolls back and replays the recorded changes to assign
+	 * IDs even if no change can modify IDs.
+	 */
+	@Param({ "false", "true" })
+	public boolean alwaysReplayForIdAssignment;
+
+	private ResourceSet resourceSet;
+	private Root root;
+	private ChangeRecorder recorder;
+
+	@Setup(Level.Invocation)
+	public void createModel() {
+		resourceSet = createResourceSet();
+		Resource resource = resourceSet.createResource(URI.createFileURI("root." + BenchmarkModels.ALL_ELEMENT_TYPES_FILE_EXTENSION));
+		root = createRootWithElements(modelSize);
+		resource.getContents().add(root);
+		recorder = new ChangeRecorder(resourceSet);
+		recorder.setAlwaysReplayForIdAssignment(alwaysReplayForIdAssignment);
+		recorder.addToRecording(resourceSet);
+	}
+
+	@TearDown(Level.Invocation)
+	public void closeRecorder() {
+		recorder.close();
+	}
+
+	/**
+	 * Records one attribute change per element, which do not modify IDs, such that
+	 * IDs can be assigned without replaying the changes.
+	 */
+	@Benchmark
+	public TransactionalChange recordAttributeChanges() {
+		recorder.beginRecording();
+		for (NonRoot element : root.getMultiValuedContainmentEReference()) {
+			element.setValue(element.getValue() + "'");
+		}
+		return recorder.endRecording();
+	}
+
+	@Benchmark
+	public TransactionalChange recordElementCreations() {
+		recorder.beginRecording();
+		for (int i = 0; i < modelSize; i++) {
+			root.getMultiValuedContainmentEReference().add(createNonRoot("added" + i));
+		}
+		return recorder.endRecording();
+	}
+
+	/**
+	 * Records the same changes as {@link #recordElementCreations} but hands them
+	 * to a sink in batches instead of collecting them until the recording ends.
+	 */
+	@Benchmark
+	public void recordElementCreationsIntoSink(Blackhole blackhole) {
+		recorder.beginRecording(blackhole::consume, SINK_BATCH_SIZE);
+		for (int i = 0; i < modelSize; i++) {
+			root.getMultiValuedContainmentEReference().add(createNonRoot("added" + i));
+			recorder.flushBatch();
+		}
+		recorder.endRecording();
+	}
+
+	@Benchmark
+	public TransactionalChange recordElementDeletions() {
+		recorder.beginRecording();
+		root.getMultiValuedContainmentEReference().clear();
+		return recorder.endRecording();
+	}
+}
@@ -0,0 +1,57 @@
+package tools.vitruv.framework.benchmarks;
+
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.createResourceSet;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.createRootWithElements;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import tools.vitruv.framework.change.recording.ChangeRecorder;
+
+/**
+ * Measures adding an existing model to a {@link ChangeRecorder}, which has to
+ * be done before changes to the model can be recorded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ChangeRecorderSetupBenchmark {
+	@Param({ "1000", "100000" })
+	public int modelSize;
+
+	private ResourceSet resourceSet;
+	private ChangeRecorder recorder;
+
+	@Setup(Level.Trial)
+	public void createModel() {
+		resourceSet = createResourceSet();
+		Resource resource = resourceSet
+				.createResource(URI.createFileURI("root." + BenchmarkModels.ALL_ELEMENT_TYPES_FILE_EXTENSION));
+		resource.getContents().add(createRootWithElements(modelSize));
+	}
+
+	@TearDown(Level.Invocation)
+	public void closeRecorder() {
+		recorder.close();
+	}
+
+	@Benchmark
+	public ChangeRecorder addToRecording() {
+		recorder = new ChangeRecorder(resourceSet);
+		recorder.addToRecording(resourceSet);
+		return recorder;
+	}
+}
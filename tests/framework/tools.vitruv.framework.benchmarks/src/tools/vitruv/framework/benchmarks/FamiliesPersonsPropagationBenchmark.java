@@ -0,0 +1,99 @@
+package tools.vitruv.framework.benchmarks;
+
+import static java.util.stream.Collectors.toSet;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.createTemporaryFolder;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.createVirtualModel;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.deleteRecursively;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.getModelUri;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.recordResourceCreation;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import edu.kit.ipd.sdq.metamodels.families.FamiliesFactory;
+import edu.kit.ipd.sdq.metamodels.families.Family;
+import edu.kit.ipd.sdq.metamodels.families.FamilyRegister;
+import edu.kit.ipd.sdq.metamodels.families.Member;
+import tools.vitruv.applications.demo.familiespersons.FamiliesPersonsApplication;
+import tools.vitruv.domains.demo.families.FamiliesDomain;
+import tools.vitruv.framework.change.description.PropagatedChange;
+import tools.vitruv.framework.change.description.VitruviusChange;
+import tools.vitruv.framework.propagation.ChangePropagationSpecification;
+import tools.vitruv.framework.vsum.internal.InternalVirtualModel;
+
+/**
+ * Measures propagating a change of a families model into a virtual model that
+ * transforms it into a persons model with the reactions of the families-persons
+ * demo application, i.e., the whole change propagation pipeline including
+ * reaction dispatch, correspondence management and persistence.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class FamiliesPersonsPropagationBenchmark {
+	private static final int SONS_PER_FAMILY = 2;
+
+	@Param({ "10", "100" })
+	public int numberOfFamilies;
+
+	private Path storageFolder;
+	private InternalVirtualModel virtualModel;
+	private VitruviusChange change;
+
+	@Setup(Level.Invocation)
+	public void createVirtualModel() throws IOException {
+		FamiliesPersonsApplication application = new FamiliesPersonsApplication();
+		Set<ChangePropagationSpecification> familiesToPersons = application.getChangePropagationSpecifications()
+				.stream().filter(specification -> specification.getSourceDomain() instanceof FamiliesDomain)
+				.collect(toSet());
+		storageFolder = createTemporaryFolder("familiesPersons");
+		virtualModel = createVirtualModel(storageFolder, application.getVitruvDomains(), familiesToPersons);
+		change = recordResourceCreation(getModelUri(storageFolder, "families", FamiliesDomain.FILE_EXTENSION),
+				createFamilyRegister());
+	}
+
+	private FamilyRegister createFamilyRegister() {
+		FamilyRegister register = FamiliesFactory.eINSTANCE.createFamilyRegister();
+		for (int i = 0; i < numberOfFamilies; i++) {
+			Family family = FamiliesFactory.eINSTANCE.createFamily();
+			family.setLastName("Family" + i);
+			family.setFather(createMember("Father" + i));
+			for (int j = 0; j < SONS_PER_FAMILY; j++) {
+				family.getSons().add(createMember("Son" + i + "_" + j));
+			}
+			register.getFamilies().add(family);
+		}
+		return register;
+	}
+
+	private static Member createMember(String firstName) {
+		Member member = FamiliesFactory.eINSTANCE.createMember();
+		member.setFirstName(firstName);
+		return member;
+	}
+
+	@TearDown(Level.Invocation)
+	public void disposeVirtualModel() throws IOException {
+		virtualModel.dispose();
+		deleteRecursively(storageFolder);
+	}
+
+	@Benchmark
+	public List<PropagatedChange> propagateFamiliesCreation() {
+		return virtualModel.propagateChange(change);
+	}
+}
@@ -0,0 +1,74 @@
+package tools.vitruv.framework.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.ecore.EObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import edu.kit.ipd.sdq.metamodels.families.FamiliesFactory;
+import edu.kit.ipd.sdq.metamodels.families.FamiliesPackage;
+import edu.kit.ipd.sdq.metamodels.families.Member;
+import mir.reactions.dispatchBenchmark.ReactionsExecutor;
+import tools.vitruv.framework.change.echange.EChange;
+import tools.vitruv.framework.change.echange.feature.attribute.AttributeFactory;
+import tools.vitruv.framework.change.echange.feature.attribute.ReplaceSingleValuedEAttribute;
+
+/**
+ * Measures dispatching a change to the reactions generated from
+ * {@code DispatchBenchmark.reactions}. The reactions executor contains 100
+ * reactions, 25 of which react to the benchmarked change of a member's first
+ * name, but at most one of them passes its precondition and calls a routine.
+ * Run with the GC profiler ({@code -prof gc}) to measure the allocations per
+ * propagated change, which must not grow with the number of called reactions
+ * that do not match the change.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class ReactionsDispatchBenchmark {
+	private static int matchCount;
+
+	/**
+	 * Whether one of the reactions matches the change and calls its routine, or
+	 * whether all of them reject the change in their precondition.
+	 */
+	@Param({ "true", "false" })
+	public boolean matching;
+
+	private ReactionsExecutor executor;
+	private EChange change;
+
+	/**
+	 * Called by the routines of the generated reactions.
+	 */
+	public static void countMatch() {
+		matchCount++;
+	}
+
+	@Setup
+	public void createExecutor() {
+		executor = new ReactionsExecutor();
+		Member member = FamiliesFactory.eINSTANCE.createMember();
+		member.setFirstName("Old");
+		ReplaceSingleValuedEAttribute<EObject, Object> replaceFirstName = AttributeFactory.eINSTANCE
+				.createReplaceSingleValuedEAttribute();
+		replaceFirstName.setAffectedEObject(member);
+		replaceFirstName.setAffectedFeature(FamiliesPackage.eINSTANCE.getMember_FirstName());
+		replaceFirstName.setOldValue("Old");
+		replaceFirstName.setNewValue(matching ? "Member0" : "Unmatched");
+		change = replaceFirstName;
+	}
+
+	@Benchmark
+	public int dispatchChange() {
+		executor.propagateChange(change, null, null);
+		return matchCount;
+	}
+}
@@ -0,0 +1,42 @@
+package tools.vitruv.framework.benchmarks;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks of this bundle when the system property
+ * {@code vitruv.benchmarks} is set to {@code true}, as done by the
+ * {@code benchmarks} Maven profile. Since the benchmarks require the OSGi
+ * environment of the test runtime, they are executed in the test JVM instead
+ * of in forked JVMs. Further JMH command line options, such as a benchmark
+ * filter or profilers, can be passed with the system property
+ * {@code vitruv.benchmarks.arguments}.
+ */
+@EnabledIfSystemProperty(named = "vitruv.benchmarks", matches = "true")
+public class RunBenchmarks {
+	@Test
+	public void runBenchmarks() throws RunnerException, CommandLineOptionException {
+		String arguments = System.getProperty("vitruv.benchmarks.arguments", "").trim();
+		CommandLineOptions commandLineOptions = new CommandLineOptions(
+				arguments.isEmpty() ? new String[0] : arguments.split("\\s+"));
+		OptionsBuilder options = new OptionsBuilder();
+		options.parent(commandLineOptions);
+		if (commandLineOptions.getIncludes().isEmpty()) {
+			options.include("tools\\.vitruv\\.framework\\..*Benchmark");
+		}
+		options.forks(0);
+		String resultFile = System.getProperty("vitruv.benchmarks.result");
+		if (resultFile != null) {
+			options.resultFormat(ResultFormatType.JSON).result(resultFile);
+		}
+		Options runOptions = options.build();
+		new Runner(runOptions).run();
+	}
+}
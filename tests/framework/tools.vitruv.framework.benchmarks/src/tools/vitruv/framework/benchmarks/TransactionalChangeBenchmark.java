@@ -0,0 +1,88 @@
+package tools.vitruv.framework.benchmarks;
+
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.createResourceSet;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.createRootWithElements;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import tools.vitruv.framework.change.description.VitruviusChange;
+import tools.vitruv.framework.change.recording.ChangeRecorder;
+
+/**
+ * Measures resolving and applying a recorded change to another resource set,
+ * as done when propagating changes from a view to the underlying models, as
+ * well as unresolving a change, as done when changes are recorded. With the
+ * largest model size, the recorded change consists of about 50,000 changes,
+ * like a large commit of a view. The memory allocated per operation can be
+ * measured with the GC profiler of JMH ({@code -prof gc}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class TransactionalChangeBenchmark {
+	@Param({ "10", "100", "1000", "12500" })
+	public int modelSize;
+
+	private VitruviusChange unresolvedChange;
+	private VitruviusChange resolvedChange;
+	private ResourceSet targetResourceSet;
+
+	@Setup(Level.Trial)
+	public void recordChange() {
+		ResourceSet sourceResourceSet = createResourceSet();
+		try (ChangeRecorder recorder = new ChangeRecorder(sourceResourceSet)) {
+			recorder.addToRecording(sourceResourceSet);
+			recorder.beginRecording();
+			sourceResourceSet
+					.createResource(URI.createFileURI("root." + BenchmarkModels.ALL_ELEMENT_TYPES_FILE_EXTENSION))
+					.getContents().add(createRootWithElements(modelSize));
+			resolvedChange = recorder.endRecording();
+		}
+		unresolvedChange = resolvedChange.unresolve();
+	}
+
+	@Setup(Level.Invocation)
+	public void createTargetResourceSet() {
+		targetResourceSet = createResourceSet();
+	}
+
+	@Benchmark
+	public VitruviusChange resolveAndApply() {
+		return unresolvedChange.resolveAndApply(targetResourceSet);
+	}
+
+	/**
+	 * Applies the resolved change to another resource set as done by the virtual
+	 * model, i.e., without creating an unresolved copy first.
+	 */
+	@Benchmark
+	public VitruviusChange unresolveAndResolveAndApply() {
+		return resolvedChange.unresolveAndResolveAndApply(targetResourceSet);
+	}
+
+	/**
+	 * Applies the resolved change to another resource set by unresolving it first,
+	 * as a reference for {@link #unresolveAndResolveAndApply()}.
+	 */
+	@Benchmark
+	public VitruviusChange unresolveThenResolveAndApply() {
+		return resolvedChange.unresolve().resolveAndApply(targetResourceSet);
+	}
+
+	@Benchmark
+	public VitruviusChange unresolve() {
+		return resolvedChange.unresolve();
+	}
+}
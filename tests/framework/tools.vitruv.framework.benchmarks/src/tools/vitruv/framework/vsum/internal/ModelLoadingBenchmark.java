@@ -0,0 +1,100 @@
+package tools.vitruv.framework.vsum.internal;
+
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.createRootWithElements;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.createTemporaryFolder;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.deleteRecursively;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.getModelUri;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.registerMetamodels;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import tools.vitruv.framework.benchmarks.BenchmarkModels;
+import tools.vitruv.framework.domains.repository.VitruvDomainRepository;
+import tools.vitruv.framework.domains.repository.VitruvDomainRepositoryImpl;
+import tools.vitruv.framework.vsum.helper.VsumFileSystemLayout;
+import tools.vitruv.testutils.domains.AllElementTypesDomainProvider;
+
+/**
+ * Measures loading the existing models of a {@link ResourceRepositoryImpl}, as
+ * done when a virtual model is started, with and without lazy model loading.
+ * With lazy model loading, accessing a model for the first time includes
+ * loading it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class ModelLoadingBenchmark {
+	private static final int ELEMENTS_PER_MODEL = 100;
+
+	@Param({ "1000" })
+	public int numberOfModels;
+
+	@Param({ "false", "true" })
+	public boolean lazyModelLoading;
+
+	private Path storageFolder;
+	private VsumFileSystemLayout fileSystemLayout;
+	private VitruvDomainRepository domainRepository;
+	private URI accessedModelUri;
+	private ResourceRepositoryImpl repository;
+
+	@Setup(Level.Trial)
+	public void createModels() throws IOException {
+		registerMetamodels();
+		storageFolder = createTemporaryFolder("modelLoading");
+		fileSystemLayout = new VsumFileSystemLayout(storageFolder);
+		fileSystemLayout.prepare();
+		domainRepository = new VitruvDomainRepositoryImpl(List.of(new AllElementTypesDomainProvider().getDomain()));
+		ResourceRepositoryImpl initialRepository = new ResourceRepositoryImpl(fileSystemLayout, domainRepository);
+		for (int i = 0; i < numberOfModels; i++) {
+			URI modelUri = getModelUri(storageFolder, "model" + i, BenchmarkModels.ALL_ELEMENT_TYPES_FILE_EXTENSION);
+			initialRepository.persistAsRoot(createRootWithElements(ELEMENTS_PER_MODEL), modelUri);
+			accessedModelUri = modelUri;
+		}
+		initialRepository.saveOrDeleteModels();
+		initialRepository.close();
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteModels() throws IOException {
+		deleteRecursively(storageFolder);
+	}
+
+	@Setup(Level.Invocation)
+	public void createRepository() {
+		repository = new ResourceRepositoryImpl(fileSystemLayout, domainRepository, lazyModelLoading);
+	}
+
+	@TearDown(Level.Invocation)
+	public void closeRepository() throws Exception {
+		repository.close();
+	}
+
+	@Benchmark
+	public ResourceRepositoryImpl loadExistingModels() {
+		repository.loadExistingModels();
+		return repository;
+	}
+
+	@Benchmark
+	public Resource loadExistingModelsAndAccessOne() {
+		repository.loadExistingModels();
+		return repository.getModel(accessedModelUri).getResource();
+	}
+}
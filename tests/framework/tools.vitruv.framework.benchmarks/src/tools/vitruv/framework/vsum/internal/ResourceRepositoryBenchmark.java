@@ -0,0 +1,94 @@
+package tools.vitruv.framework.vsum.internal;
+
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.createRootWithElements;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.createTemporaryFolder;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.deleteRecursively;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.getModelUri;
+import static tools.vitruv.framework.benchmarks.BenchmarkModels.registerMetamodels;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.common.util.URI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import allElementTypes.Root;
+import tools.vitruv.framework.benchmarks.BenchmarkModels;
+import tools.vitruv.framework.domains.repository.VitruvDomainRepositoryImpl;
+import tools.vitruv.framework.vsum.helper.VsumFileSystemLayout;
+import tools.vitruv.testutils.domains.AllElementTypesDomainProvider;
+
+/**
+ * Measures saving the models of a {@link ResourceRepositoryImpl}, as done after
+ * every propagated change, both if no model and if a single model was modified.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ResourceRepositoryBenchmark {
+	private static final int ELEMENTS_PER_MODEL = 100;
+
+	@Param({ "1", "10", "100" })
+	public int numberOfModels;
+
+	private Path storageFolder;
+	private ResourceRepositoryImpl repository;
+	private final List<Root> roots = new ArrayList<>();
+
+	@Setup(Level.Trial)
+	public void createRepository() throws IOException {
+		registerMetamodels();
+		storageFolder = createTemporaryFolder("resourceRepository");
+		VsumFileSystemLayout fileSystemLayout = new VsumFileSystemLayout(storageFolder);
+		fileSystemLayout.prepare();
+		repository = new ResourceRepositoryImpl(fileSystemLayout,
+				new VitruvDomainRepositoryImpl(List.of(new AllElementTypesDomainProvider().getDomain())));
+		for (int i = 0; i < numberOfModels; i++) {
+			Root root = createRootWithElements(ELEMENTS_PER_MODEL);
+			URI modelUri = getModelUri(storageFolder, "model" + i, BenchmarkModels.ALL_ELEMENT_TYPES_FILE_EXTENSION);
+			repository.persistAsRoot(root, modelUri);
+			roots.add(root);
+		}
+		repository.saveOrDeleteModels();
+	}
+
+	@TearDown(Level.Trial)
+	public void closeRepository() throws Exception {
+		repository.close();
+		deleteRecursively(storageFolder);
+	}
+
+	@State(Scope.Thread)
+	public static class ModelModification {
+		private int modificationCount;
+
+		@Setup(Level.Invocation)
+		public void modifyOneModel(ResourceRepositoryBenchmark benchmark) {
+			Root root = benchmark.roots.get(modificationCount++ % benchmark.roots.size());
+			root.setSingleValuedEAttribute(modificationCount);
+			benchmark.repository.getModel(root.eResource().getURI()).markModified();
+		}
+	}
+
+	@Benchmark
+	public void saveUnmodifiedModels() {
+		repository.saveOrDeleteModels();
+	}
+
+	@Benchmark
+	public void saveOneModifiedModel(ModelModification modification) {
+		repository.saveOrDeleteModels();
+	}
+}
@@ -18,6 +18,8 @@ import org.junit.jupiter.api.BeforeEach
 import org.eclipse.emf.ecore.util.EcoreUtil
 import static org.junit.jupiter.api.Assertions.assertThrows
 import static org.junit.jupiter.api.Assertions.assertTrue
+import static org.junit.jupiter.api.Assertions.assertSame
+import static org.junit.jupiter.api.Assertions.assertNotSame
 import org.eclipse.emf.ecore.resource.ResourceSet
 import tools.vitruv.framework.change.echange.id.IdResolver
 
@@ -219,6 +221,61 @@ class IdResolverTest {
 		]
 	}
 
+	@Test
+	@DisplayName("update IDs of contained elements recursively")
+	def void updateIdsRecursively() {
+		val root = aet.Root => [
+			multiValuedContainmentEReference += (1..5).map [ index |
+				aet.NonRoot => [value = "element" + index]
+			]
+			recursiveRoot = aet.Root => [
+				singleValuedContainmentEReference = aet.NonRoot
+				multiValuedContainmentEReference += aet.NonRoot
+			]
+		]
+		resourceSet.createResource(URI.createFileURI(testProjectPath.resolve("root.aet").toString)) => [
+			contents += aet.Root
+			contents += root
+		]
+		idResolver.updateIdsRecursively(root)
+
+		val referenceResolver = IdResolver.create(resourceSet)
+		for (element : #[root] + root.eAllContents.toIterable) {
+			val expectedId = referenceResolver.getAndUpdateId(element)
+			assertEquals(element, idResolver.getEObject(expectedId))
+			assertEquals(expectedId, idResolver.getAndUpdateId(element))
+		}
+	}
+
+	@Test
+	@DisplayName("update IDs of contained elements recursively across resources")
+	def void updateIdsRecursivelyWithCrossResourceContainment() {
+		val containedRoot = aet.Root => [
+			singleValuedContainmentEReference = aet.NonRoot
+		]
+		val root = aet.Root => [
+			multiValuedContainmentEReference += aet.NonRoot
+			recursiveRoot = containedRoot
+			singleValuedContainmentEReference = aet.NonRoot
+		]
+		resourceSet.createResource(URI.createFileURI(testProjectPath.resolve("root.aet").toString)) => [
+			contents += root
+		]
+		resourceSet.createResource(URI.createFileURI(testProjectPath.resolve("containedRoot.aet").toString)) => [
+			contents += aet.Root
+			contents += containedRoot
+		]
+		idResolver.updateIdsRecursively(root)
+
+		val referenceResolver = IdResolver.create(resourceSet)
+		for (element : #[root] + root.eAllContents.toIterable) {
+			val expectedId = referenceResolver.getAndUpdateId(element)
+			assertEquals(element, idResolver.getEObject(expectedId))
+			assertEquals(expectedId, idResolver.getAndUpdateId(element))
+		}
+		assertTrue(idResolver.getAndUpdateId(containedRoot).startsWith(containedRoot.eResource.URI.toString))
+	}
+
 	@Test
 	@DisplayName("generate ID and resolve it after element deletion")
 	def void elementDeletionDoesNotRemoveUiud() {
@@ -293,4 +350,92 @@ class IdResolverTest {
 		assertThrows(IllegalStateException)[idResolver.getEObject(rootId)]
 	}
 
+	@Test
+	@DisplayName("cleanup resolver when resource is removed from resource set")
+	def void cleanupAfterResourceRemoval() {
+		val root = aet.Root => [
+			singleValuedContainmentEReference = aet.NonRoot
+		]
+		val resource = resourceSet.createResource(URI.createFileURI(testProjectPath.resolve("root.aet").toString)) => [
+			contents += root
+		]
+		val rootId = idResolver.getAndUpdateId(root)
+		val nonRootId = idResolver.getAndUpdateId(root.singleValuedContainmentEReference)
+		idResolver.endTransaction()
+		resourceSet.resources -= resource
+		assertThrows(IllegalStateException)[idResolver.getEObject(rootId)]
+		assertThrows(IllegalStateException)[idResolver.getEObject(nonRootId)]
+	}
+
+	@Test
+	@DisplayName("cleanup resolver when resource is unloaded")
+	def void cleanupAfterResourceUnload() {
+		val root = aet.Root => [
+			singleValuedContainmentEReference = aet.NonRoot
+		]
+		val resource = resourceSet.createResource(URI.createFileURI(testProjectPath.resolve("root.aet").toString)) => [
+			contents += root
+			save(null)
+		]
+		val nonRootId = idResolver.getAndUpdateId(root.singleValuedContainmentEReference)
+		idResolver.endTransaction()
+		resource.unload()
+		assertThrows(IllegalStateException)[idResolver.getEObject(nonRootId)]
+		resource.load(null)
+		val reloadedNonRoot = idResolver.getEObject(nonRootId)
+		assertNotEquals(root.singleValuedContainmentEReference, reloadedNonRoot)
+		assertEquals(resource.contents.head.eContents.head, reloadedNonRoot)
+	}
+
+	@Test
+	@DisplayName("resolve element in read-only resource repeatedly and after unload")
+	def void resolveReadOnlyElement() {
+		resourceSet.URIConverter.URIMap.put(URI.createURI("pathmap://test/"),
+			URI.createFileURI(testProjectPath.toString + "/"))
+		val root = aet.Root
+		val resource = resourceSet.createResource(URI.createURI("pathmap://test/readOnly.aet")) => [
+			contents += root
+			save(null)
+		]
+		val rootId = idResolver.getAndUpdateId(root)
+		assertSame(root, idResolver.getEObject(rootId))
+		assertSame(root, idResolver.getEObject(rootId))
+		resource.unload()
+		val reloadedRoot = idResolver.getEObject(rootId)
+		assertNotSame(root, reloadedRoot)
+		assertSame(resource.contents.head, reloadedRoot)
+		assertSame(reloadedRoot, idResolver.getEObject(rootId))
+	}
+
+	@Test
+	@DisplayName("resolve element in read-only resource after resource removal")
+	def void resolveReadOnlyElementAfterResourceRemoval() {
+		resourceSet.URIConverter.URIMap.put(URI.createURI("pathmap://test/"),
+			URI.createFileURI(testProjectPath.toString + "/"))
+		val root = aet.Root
+		val resource = resourceSet.createResource(URI.createURI("pathmap://test/readOnly.aet")) => [
+			contents += root
+			save(null)
+		]
+		val rootId = idResolver.getAndUpdateId(root)
+		assertSame(root, idResolver.getEObject(rootId))
+		resourceSet.resources -= resource
+		val reloadedRoot = idResolver.getEObject(rootId)
+		assertNotSame(root, reloadedRoot)
+		assertSame(resourceSet, reloadedRoot.eResource.resourceSet)
+	}
+
+	@Test
+	@DisplayName("stop observing resources when closed")
+	def void closeRemovesObservers() {
+		val root = aet.Root
+		val resource = resourceSet.createResource(URI.createFileURI(testProjectPath.resolve("root.aet").toString)) => [
+			contents += root
+		]
+		val adaptersBefore = resource.eAdapters.size
+		idResolver.getAndUpdateId(root)
+		idResolver.close()
+		assertEquals(adaptersBefore, resource.eAdapters.size)
+	}
+
 }
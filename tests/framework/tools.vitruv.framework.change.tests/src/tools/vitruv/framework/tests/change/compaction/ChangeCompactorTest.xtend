@@ -0,0 +1,211 @@
+package tools.vitruv.framework.tests.change.compaction
+
+import allElementTypes.AllElementTypesPackage
+import allElementTypes.Root
+import org.eclipse.emf.common.util.URI
+import org.eclipse.emf.ecore.resource.ResourceSet
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl
+import org.eclipse.emf.ecore.util.EcoreUtil
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.^extension.ExtendWith
+import tools.vitruv.framework.change.compaction.ChangeCompactor
+import tools.vitruv.framework.change.description.TransactionalChange
+import tools.vitruv.framework.change.echange.feature.attribute.AttributeFactory
+import tools.vitruv.framework.change.echange.feature.attribute.ReplaceSingleValuedEAttribute
+import tools.vitruv.framework.change.echange.feature.reference.InsertEReference
+import tools.vitruv.framework.change.recording.ChangeRecorder
+import tools.vitruv.testutils.RegisterMetamodelsInStandalone
+
+import static org.hamcrest.CoreMatchers.is
+import static org.hamcrest.CoreMatchers.nullValue
+import static org.hamcrest.MatcherAssert.assertThat
+import static tools.vitruv.testutils.matchers.ModelMatchers.equalsDeeply
+import static tools.vitruv.testutils.metamodels.AllElementTypesCreators.aet
+
+import static extension edu.kit.ipd.sdq.commons.util.org.eclipse.emf.ecore.resource.ResourceSetUtil.withGlobalFactories
+
+@ExtendWith(RegisterMetamodelsInStandalone)
+class ChangeCompactorTest {
+	val ResourceSet resourceSet = new ResourceSetImpl().withGlobalFactories()
+	val ChangeRecorder changeRecorder = new ChangeRecorder(resourceSet)
+	val ChangeCompactor changeCompactor = new ChangeCompactor
+	var Root root
+
+	@BeforeEach
+	def void createRoot() {
+		root = aet.Root => [id = 'root']
+		resourceSet.createResource(URI.createURI('test://test.aet')).contents += root
+		changeRecorder.addToRecording(resourceSet)
+	}
+
+	@AfterEach
+	def void closeRecorder() {
+		changeRecorder.close()
+	}
+
+	private def TransactionalChange record(()=>void changes) {
+		changeRecorder.beginRecording()
+		changes.apply
+		changeRecorder.endRecording()
+		return changeRecorder.change
+	}
+
+	@Test
+	@DisplayName("merges replacements of the same attribute")
+	def void mergeAttributeReplacements() {
+		val change = record [
+			root.singleValuedEAttribute = 1
+			root.singleValuedEAttribute = 2
+			root.singleValuedEAttribute = 3
+		]
+
+		val compactedChanges = changeCompactor.compact(change).EChanges
+		assertThat(compactedChanges.size, is(1))
+		val replacement = compactedChanges.get(0) as ReplaceSingleValuedEAttribute<?, ?>
+		assertThat(replacement.oldValue, is(nullValue))
+		assertThat(replacement.newValue, is(3))
+	}
+
+	@Test
+	@DisplayName("merges replacements of the ID attribute with the ID of the element before the first one")
+	def void mergeIdAttributeReplacements() {
+		// the hierarchic IDs of the elements of this metamodel do not depend on their ID attribute, so the
+		// replacements are created with the IDs they would have if they did
+		val ReplaceSingleValuedEAttribute<Root, String> firstReplacement = AttributeFactory.eINSTANCE.
+			createReplaceSingleValuedEAttribute => [
+			affectedEObject = root
+			affectedEObjectID = 'root'
+			affectedFeature = AllElementTypesPackage.Literals.IDENTIFIED__ID
+			oldValue = 'root'
+			newValue = 'first'
+		]
+		val ReplaceSingleValuedEAttribute<Root, String> secondReplacement = AttributeFactory.eINSTANCE.
+			createReplaceSingleValuedEAttribute => [
+			affectedEObject = root
+			affectedEObjectID = 'first'
+			affectedFeature = AllElementTypesPackage.Literals.IDENTIFIED__ID
+			oldValue = 'first'
+			newValue = 'second'
+		]
+
+		val compactedChanges = changeCompactor.compact(#[firstReplacement, secondReplacement])
+		assertThat(compactedChanges.size, is(1))
+		val replacement = compactedChanges.get(0) as ReplaceSingleValuedEAttribute<?, ?>
+		assertThat(replacement.affectedEObjectID, is('root'))
+		assertThat(replacement.oldValue, is('root'))
+		assertThat(replacement.newValue, is('second'))
+	}
+
+	@Test
+	@DisplayName("merges replacements of an attribute around the insertion of a sibling of the affected object")
+	def void mergeAttributeReplacementsAroundSiblingInsertion() {
+		val nonRoot = aet.NonRoot => [id = 'nonRoot']
+		root.multiValuedContainmentEReference += nonRoot
+		val validationResourceSet = new ResourceSetImpl().withGlobalFactories()
+		validationResourceSet.createResource(URI.createURI('test://test.aet')).contents += EcoreUtil.copy(root)
+		val change = record [
+			nonRoot.value = 'first'
+			root.multiValuedContainmentEReference.add(0, aet.NonRoot => [id = 'sibling'])
+			nonRoot.value = 'second'
+		]
+
+		val compactedChange = changeCompactor.compact(change)
+		assertThat(compactedChange.EChanges.filter(ReplaceSingleValuedEAttribute).size, is(1))
+		compactedChange.unresolve().resolveAndApply(validationResourceSet)
+		assertThat(validationResourceSet.resources.get(0).contents.get(0), equalsDeeply(root))
+	}
+
+	@Test
+	@DisplayName("removes replacements of an attribute that restore its original value")
+	def void removeRestoringAttributeReplacements() {
+		val change = record [
+			root.singleValuedEAttribute = 1
+			root.singleValuedEAttribute = null
+		]
+
+		assertThat(changeCompactor.compact(change).EChanges.size, is(0))
+	}
+
+	@Test
+	@DisplayName("keeps replacements of an unsettable attribute that restore its original value")
+	def void keepRestoringUnsettableAttributeReplacements() {
+		val change = record [
+			root.singleValuedUnsettableEAttribute = 1
+			root.singleValuedUnsettableEAttribute = null
+		]
+
+		assertThat(changeCompactor.compact(change).EChanges.size, is(1))
+	}
+
+	@Test
+	@DisplayName("cancels the insertion and subsequent removal of a value")
+	def void cancelInsertionAndRemoval() {
+		val change = record [
+			root.multiValuedEAttribute += 1
+			root.multiValuedEAttribute.remove(0)
+		]
+
+		assertThat(changeCompactor.compact(change).EChanges.size, is(0))
+	}
+
+	@Test
+	@DisplayName("removes the changes of an object that is created and deleted again")
+	def void removeTemporaryObject() {
+		val change = record [
+			val nonRoot = aet.NonRoot => [id = 'temporary']
+			root.multiValuedContainmentEReference += nonRoot
+			nonRoot.value = 'changed'
+			root.multiValuedContainmentEReference -= nonRoot
+		]
+
+		assertThat(changeCompactor.compact(change).EChanges.size, is(0))
+	}
+
+	@Test
+	@DisplayName("removes the changes of an object that is created and deleted again together with its contents")
+	def void removeTemporaryObjectWithContents() {
+		val change = record [
+			val temporaryRoot = aet.Root => [id = 'temporary']
+			root.recursiveRoot = temporaryRoot
+			val nonRoot = aet.NonRoot => [id = 'temporaryContent']
+			temporaryRoot.multiValuedContainmentEReference += nonRoot
+			nonRoot.value = 'changed'
+			root.recursiveRoot = null
+		]
+
+		assertThat(changeCompactor.compact(change).EChanges.size, is(0))
+	}
+
+	@Test
+	@DisplayName("keeps the changes of a created object that is still contained")
+	def void keepCreatedObject() {
+		val change = record [
+			root.multiValuedContainmentEReference += aet.NonRoot => [id = 'created']
+		]
+
+		val compactedChanges = changeCompactor.compact(change).EChanges
+		assertThat(compactedChanges, is(change.EChanges))
+		assertThat(compactedChanges.exists[it instanceof InsertEReference<?, ?>], is(true))
+	}
+
+	@Test
+	@DisplayName("reports the ratio of changes remaining after compaction")
+	def void reportCompactionRatio() {
+		val change = record [
+			root.singleValuedEAttribute = 1
+			root.singleValuedEAttribute = 2
+			root.singleValuedEAttribute = 3
+			root.singleValuedEAttribute = 4
+		]
+		changeCompactor.compact(change)
+
+		val statistics = changeCompactor.statistics
+		assertThat(statistics.compactedChanges, is(1L))
+		assertThat(statistics.EChangesBeforeCompaction, is(4L))
+		assertThat(statistics.EChangesAfterCompaction, is(1L))
+		assertThat(statistics.compactionRatio, is(0.25))
+	}
+}
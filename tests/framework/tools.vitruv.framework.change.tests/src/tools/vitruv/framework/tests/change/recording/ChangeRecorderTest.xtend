@@ -21,9 +21,12 @@ import tools.vitruv.framework.change.echange.eobject.CreateEObject
 import tools.vitruv.framework.change.echange.root.InsertRootEObject
 import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
 import java.util.List
+import java.util.ArrayList
 import tools.vitruv.framework.change.echange.root.RemoveRootEObject
 import tools.vitruv.framework.change.echange.eobject.DeleteEObject
 import tools.vitruv.framework.change.echange.feature.reference.InsertEReference
+import tools.vitruv.framework.change.echange.feature.FeatureEChange
+import tools.vitruv.framework.change.echange.feature.reference.ReplaceSingleValuedEReference
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.ValueSource
 import tools.vitruv.testutils.TestProject
@@ -712,6 +715,87 @@ class ChangeRecorderTest {
 		assertThat(changeRecorder.change, hasEChanges(ReplaceSingleValuedEAttribute, ReplaceSingleValuedEAttribute))
 	}
 
+	@Test
+	@DisplayName("does not create an object removed in an earlier recording when adding it again")
+	def void dontCreateObjectAddedAgain() {
+		val nonRoot = aet.NonRoot
+		val root = aet.Root.wrapIntoRecordedResource() => [
+			record [
+				singleValuedContainmentEReference = nonRoot
+			]
+		]
+		record [
+			root.singleValuedContainmentEReference = null
+		]
+		record [
+			root.singleValuedContainmentEReference = nonRoot
+		]
+
+		assertThat(changeRecorder.change, hasEChanges(ReplaceSingleValuedEReference))
+	}
+
+	@Test
+	@DisplayName("hands the recorded changes to a sink in batches")
+	def void recordsIntoSinkInBatches() {
+		val root = aet.Root.wrapIntoRecordedResource()
+		val batches = new ArrayList<TransactionalChange>
+		changeRecorder.beginRecording([batches += it], 2)
+		root.singleValuedEAttribute = 1
+		assertThat(changeRecorder.flushBatch(), is(false))
+		assertThat(batches.size, is(0))
+		root.singleValuedEAttribute = 2
+		assertThat(changeRecorder.flushBatch(), is(true))
+		root.singleValuedEAttribute = 3
+		assertThat(changeRecorder.flushBatch(), is(false))
+		changeRecorder.endRecording()
+
+		assertThat(batches.size, is(2))
+		assertThat(batches.get(0), hasEChanges(ReplaceSingleValuedEAttribute, ReplaceSingleValuedEAttribute))
+		assertThat(batches.get(1), hasEChanges(ReplaceSingleValuedEAttribute))
+		assertThat(changeRecorder.change, hasNoChanges)
+	}
+
+	@Test
+	@DisplayName("creates an object again that was deleted in an earlier batch")
+	def void recordsIntoSinkWithDeletionAtEndOfBatch() {
+		val nonRoot = aet.NonRoot
+		val root = aet.Root.wrapIntoRecordedResource() => [
+			record [
+				singleValuedContainmentEReference = nonRoot
+			]
+		]
+		val batches = new ArrayList<TransactionalChange>
+		changeRecorder.beginRecording([batches += it], 1)
+		root.singleValuedContainmentEReference = null
+		changeRecorder.flushBatch()
+		root.singleValuedContainmentEReference = nonRoot
+		changeRecorder.flushBatch()
+		changeRecorder.endRecording()
+
+		assertThat(batches.size, is(2))
+		assertThat(batches.get(0), hasEChanges(ReplaceSingleValuedEReference, DeleteEObject))
+		assertThat(batches.get(1),
+			hasEChanges(CreateEObject, ReplaceSingleValuedEReference, ReplaceSingleValuedEAttribute))
+	}
+
+	@Test
+	@DisplayName("defers a batch until the objects created in it are contained")
+	def void recordsIntoSinkWithCreationBeforeContainment() {
+		val root = aet.Root.wrapIntoRecordedResource()
+		val nonRoot = aet.NonRoot
+		val batches = new ArrayList<TransactionalChange>
+		changeRecorder.beginRecording([batches += it], 1)
+		root.multiValuedNonContainmentEReference += nonRoot
+		assertThat(changeRecorder.flushBatch(), is(false))
+		root.multiValuedContainmentEReference += nonRoot
+		assertThat(changeRecorder.flushBatch(), is(true))
+		changeRecorder.endRecording()
+
+		assertThat(batches.size, is(1))
+		assertThat(batches.get(0),
+			hasEChanges(CreateEObject, InsertEReference, ReplaceSingleValuedEAttribute, InsertEReference))
+	}
+
 	@Test
 	@DisplayName("resets the recorded changes after ending the recording")
 	def void resetsChangesAfterEndRecording() {
@@ -733,6 +817,30 @@ class ChangeRecorderTest {
 		assertThat(changeRecorder.change, hasEChanges(CreateEObject, InsertEReference, ReplaceSingleValuedEAttribute))
 	}
 
+	@ParameterizedTest(name="while always replaying changes: {0}")
+	@ValueSource(booleans=#[false, true])
+	@DisplayName("assigns IDs in the state before the changes")
+	def void assignsIdsOfStateBeforeChanges(boolean alwaysReplayForIdAssignment) {
+		val firstNonRoot = aet.NonRoot
+		val secondNonRoot = aet.NonRoot
+		val root = aet.Root.wrapIntoRecordedResource() => [
+			record [
+				multiValuedContainmentEReference += #[firstNonRoot, secondNonRoot]
+			]
+		]
+		changeRecorder.alwaysReplayForIdAssignment = alwaysReplayForIdAssignment
+		record [
+			secondNonRoot.value = 'test'
+			root.singleValuedNonContainmentEReference = firstNonRoot
+		]
+
+		val changes = changeRecorder.change.EChanges.filter(FeatureEChange)
+		val secondNonRootId = 'test://test.aet#/0/@multiValuedContainmentEReference.1'
+		assertThat(changes.map[affectedEObjectID].toList, is(#[secondNonRootId, 'test://test.aet#/0']))
+		assertThat((changes.last as ReplaceSingleValuedEReference<?, ?>).newValueID,
+			is('test://test.aet#/0/@multiValuedContainmentEReference.0'))
+	}
+
 	@Test
 	@DisplayName("refuses to record changes on a different resource set than the one of the ID resolver")
 	def void differentResourceSet() {
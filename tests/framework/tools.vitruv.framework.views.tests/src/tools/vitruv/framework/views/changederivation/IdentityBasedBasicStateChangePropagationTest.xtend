@@ -0,0 +1,57 @@
+package tools.vitruv.framework.views.changederivation
+
+import org.eclipse.emf.ecore.resource.Resource
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Test
+import tools.vitruv.framework.change.echange.feature.attribute.ReplaceSingleValuedEAttribute
+import tools.vitruv.framework.util.Capture
+
+import static org.hamcrest.MatcherAssert.assertThat
+import static org.junit.jupiter.api.Assertions.assertEquals
+import static tools.vitruv.testutils.matchers.ModelMatchers.containsModelOf
+import static tools.vitruv.testutils.metamodels.AllElementTypesCreators.aet
+
+import static extension edu.kit.ipd.sdq.commons.util.org.eclipse.emf.ecore.resource.ResourceSetUtil.withGlobalFactories
+import static extension tools.vitruv.framework.util.Capture.operator_doubleGreaterThan
+
+class IdentityBasedBasicStateChangePropagationTest extends BasicStateChangePropagationTest {
+	override protected createStrategyToTest() {
+		return new IdentityBasedStateChangeResolutionStrategy()
+	}
+
+	@Test
+	@DisplayName("change a property to a value with the same hash code and calculate state-based difference")
+	def void changeFeatureToValueWithSameHashCode() {
+		val modelResource = new Capture<Resource>
+		val nonRoot = aet.NonRoot
+		resourceSet.record [
+			createResource(getModelURI("Test.allElementTypes")) => [
+				contents += aet.Root => [
+					id = "Root"
+					singleValuedContainmentEReference = nonRoot => [
+						id = "NonRoot"
+						value = "Aa"
+					]
+				]
+			] >> modelResource
+		]
+		(-modelResource).save(null)
+
+		resourceSet.record [
+			nonRoot.value = "BB"
+		]
+		assertEquals("Aa".hashCode, "BB".hashCode)
+
+		val validationResourceSet = new ResourceSetImpl().withGlobalFactories()
+		val oldState = validationResourceSet.getResource(getModelURI("Test.allElementTypes"), true)
+		val changes = strategyToTest.getChangeSequenceBetween(-modelResource, oldState)
+		assertEquals(1, changes.EChanges.size)
+		assertEquals(1, changes.EChanges.filter(ReplaceSingleValuedEAttribute).size)
+
+		changes.unresolve().resolveAndApply(validationResourceSet)
+
+		assertEquals(1, validationResourceSet.resources.size)
+		assertThat(validationResourceSet.resources.get(0), containsModelOf(-modelResource))
+	}
+}
@@ -59,7 +59,7 @@ abstract class StateChangePropagationTest {
 	def void setup(@TestProject Path testProjectFolder) {
 		this.testProjectFolder = testProjectFolder
 		// Setup:
-		strategyToTest = new DefaultStateBasedChangeResolutionStrategy()
+		strategyToTest = createStrategyToTest()
 		resourceSet = new ResourceSetImpl().withGlobalFactories()
 		checkpointResourceSet = new ResourceSetImpl().withGlobalFactories()
 		changeRecorder = new ChangeRecorder(resourceSet)
@@ -75,6 +75,13 @@ abstract class StateChangePropagationTest {
 		pcmModel.startRecording
 	}
 	
+	/**
+	 * Creates the strategy to test, which is the {@link DefaultStateBasedChangeResolutionStrategy} by default.
+	 */
+	protected def StateBasedChangeResolutionStrategy createStrategyToTest() {
+		return new DefaultStateBasedChangeResolutionStrategy()
+	}
+
 	/**
 	 * Stops recording in case the test does not call getRecordedChanges() or getChangeFromComparisonWithCheckpoint().
 	 */
@@ -10,6 +10,9 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static tools.vitruv.testutils.metamodels.AllElementTypesCreators.aet;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 import org.eclipse.emf.common.util.URI;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -125,6 +128,20 @@ public class BasicViewTest {
 				assertThat(view.getRootObjects(NonRoot.class), not(hasItem(anything())));
 			}
 		}
+
+		@Test
+		@DisplayName("as stream of one out of two types")
+		public void streamOfOneType() throws Exception {
+			try (BasicView view = new BasicView(mockViewType, mockChangeableViewSource, mockViewSelection)) {
+				Root root = aet.Root();
+				view.registerRoot(root, URI.createURI("test://test.aet"));
+				NonRoot otherRoot = aet.NonRoot();
+				view.registerRoot(otherRoot, URI.createURI("test://test2.aet"));
+				assertThat(view.streamRootObjects().count(), is(2L));
+				assertThat(view.streamRootObjects(Root.class).collect(Collectors.toList()), is(List.of(root)));
+				assertThat(view.streamRootObjects().skip(1).findFirst().get(), is(otherRoot));
+			}
+		}
 	}
 
 	@Nested
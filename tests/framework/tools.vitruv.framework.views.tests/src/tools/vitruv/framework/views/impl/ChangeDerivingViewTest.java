@@ -7,6 +7,8 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 import static tools.vitruv.testutils.matchers.ModelMatchers.equalsDeeply;
@@ -28,6 +30,8 @@ import org.mockito.MockitoAnnotations;
 import allElementTypes.NonRoot;
 import allElementTypes.Root;
 import tools.vitruv.framework.change.description.VitruviusChange;
+import tools.vitruv.framework.change.echange.eobject.CreateEObject;
+import tools.vitruv.framework.change.echange.eobject.DeleteEObject;
 import tools.vitruv.framework.change.echange.eobject.EobjectPackage;
 import tools.vitruv.framework.change.echange.feature.attribute.ReplaceSingleValuedEAttribute;
 import tools.vitruv.framework.change.echange.root.InsertRootEObject;
@@ -36,6 +40,7 @@ import tools.vitruv.framework.change.echange.root.RootPackage;
 import tools.vitruv.framework.views.ChangeableViewSource;
 import tools.vitruv.framework.views.ModifiableViewSelection;
 import tools.vitruv.framework.views.changederivation.DefaultStateBasedChangeResolutionStrategy;
+import tools.vitruv.framework.views.changederivation.IdentityBasedStateChangeResolutionStrategy;
 import tools.vitruv.testutils.RegisterMetamodelsInStandalone;
 import tools.vitruv.testutils.TestLogging;
 
@@ -354,6 +359,70 @@ public class ChangeDerivingViewTest {
 		}
 	}
 
+	@Nested
+	@DisplayName("commit with identity-based change resolution")
+	public class CommitWithIdentityBasedChangeResolution {
+		ChangeDerivingView view;
+		Root root;
+		NonRoot firstNonRoot;
+		NonRoot secondNonRoot;
+
+		@BeforeEach
+		public void prepareViewWithRootElement() {
+			view = new ChangeDerivingView(new BasicView(mockViewType, mockChangeableViewSource,
+					mockViewSelection), new IdentityBasedStateChangeResolutionStrategy());
+			root = aet.Root();
+			root.setId("root");
+			firstNonRoot = aet.NonRoot();
+			firstNonRoot.setId("first");
+			secondNonRoot = aet.NonRoot();
+			secondNonRoot.setId("second");
+			root.getMultiValuedContainmentEReference().add(firstNonRoot);
+			root.getMultiValuedContainmentEReference().add(secondNonRoot);
+			view.registerRoot(root, URI.createURI("test://test.aet"));
+			view.commitChangesAndUpdate();
+			reset(mockChangeableViewSource);
+		}
+
+		@AfterEach
+		public void closeView() throws Exception {
+			view.close();
+		}
+
+		@Test
+		@DisplayName("with changed attribute")
+		public void changedAttribute() {
+			secondNonRoot.setValue("changed");
+			view.commitChangesAndUpdate();
+			ArgumentCaptor<VitruviusChange> argument = ArgumentCaptor.forClass(VitruviusChange.class);
+			verify(mockChangeableViewSource).propagateChange(argument.capture());
+			assertThat(argument.getValue().getEChanges().size(), is(1));
+			assertThat(argument.getValue().getEChanges().get(0), instanceOf(ReplaceSingleValuedEAttribute.class));
+		}
+
+		@Test
+		@DisplayName("with removed and added element")
+		public void removedAndAddedElement() {
+			root.getMultiValuedContainmentEReference().remove(firstNonRoot);
+			NonRoot thirdNonRoot = aet.NonRoot();
+			thirdNonRoot.setId("third");
+			root.getMultiValuedContainmentEReference().add(thirdNonRoot);
+			view.commitChangesAndUpdate();
+			ArgumentCaptor<VitruviusChange> argument = ArgumentCaptor.forClass(VitruviusChange.class);
+			verify(mockChangeableViewSource).propagateChange(argument.capture());
+			assertThat(argument.getValue().getEChanges(), hasItem(instanceOf(DeleteEObject.class)));
+			assertThat(argument.getValue().getEChanges(), hasItem(instanceOf(CreateEObject.class)));
+		}
+
+		@Test
+		@DisplayName("without changes")
+		public void withoutChanges() {
+			view.commitChangesAndUpdate();
+			verify(mockChangeableViewSource, never()).propagateChange(any());
+			assertThat(view.getRootObjects().size(), is(1));
+		}
+	}
+
 	@Nested
 	@DisplayName("close")
 	public class Close {
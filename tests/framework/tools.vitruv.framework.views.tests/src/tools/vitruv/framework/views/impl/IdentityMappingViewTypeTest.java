@@ -1,19 +1,26 @@
 package tools.vitruv.framework.views.impl;
 
 import static edu.kit.ipd.sdq.commons.util.org.eclipse.emf.ecore.resource.ResourceSetUtil.withGlobalFactories;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.emptySet;
 import static org.hamcrest.CoreMatchers.anything;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static tools.vitruv.testutils.matchers.ModelMatchers.equalsDeeply;
 import static tools.vitruv.testutils.metamodels.AllElementTypesCreators.aet;
 
+import java.util.List;
 import java.util.Set;
 
 import org.eclipse.emf.common.util.URI;
@@ -21,6 +28,13 @@ import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
 import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.uml2.uml.Association;
+import org.eclipse.uml2.uml.Model;
+import org.eclipse.uml2.uml.Property;
+import org.eclipse.uml2.uml.UMLFactory;
+import org.eclipse.uml2.uml.UMLPackage;
+import org.eclipse.uml2.uml.resource.UMLResource;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -29,8 +43,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 
 import com.google.common.collect.FluentIterable;
 
+import allElementTypes.NonRoot;
 import allElementTypes.Root;
+import tools.vitruv.framework.change.description.PropagatedChange;
+import tools.vitruv.framework.change.description.VitruviusChangeFactory;
+import tools.vitruv.framework.change.recording.ChangeRecorder;
 import tools.vitruv.framework.views.ChangeableViewSource;
+import tools.vitruv.framework.views.CommittableView;
 import tools.vitruv.framework.views.View;
 import tools.vitruv.framework.views.ViewType;
 import tools.vitruv.framework.views.selectors.DirectViewElementSelector;
@@ -106,6 +125,60 @@ public class IdentityMappingViewTypeTest {
 			DirectViewElementSelector selector = basicViewType.createSelector(viewSource);
 			assertThat(selector.getSelectableElements(), is(Set.of(rootElement)));
 		}
+
+		@Test
+		@DisplayName("for source changed after creating the selector")
+		public void forSourceChangedAfterCreation() {
+			Resource resource = withGlobalFactories(new ResourceSetImpl())
+					.createResource(URI.createURI("test:///test.aet"));
+			ChangeableViewSource viewSource = mock(ChangeableViewSource.class);
+			when(viewSource.getViewSourceModels()).thenReturn(Set.of(resource));
+			DirectViewElementSelector selector = basicViewType.createSelector(viewSource);
+			Root rootElement = aet.Root();
+			rootElement.setSingleValuedContainmentEReference(aet.NonRoot());
+			resource.getContents().add(rootElement);
+			assertThat(selector.isSelectable(rootElement), is(true));
+			assertThat(selector.isSelectable(rootElement.getSingleValuedContainmentEReference()), is(false));
+			assertThat(selector.getSelectableElements(), is(Set.of(rootElement)));
+		}
+
+		@Test
+		@DisplayName("requesting the source models once for checking elements")
+		public void requestingSourceModelsOnce() {
+			ResourceSet resourceSet = withGlobalFactories(new ResourceSetImpl());
+			Resource resource = resourceSet.createResource(URI.createURI("test:///test.aet"));
+			Root rootElement = aet.Root();
+			resource.getContents().add(rootElement);
+			Root otherRootElement = aet.Root();
+			withGlobalFactories(new ResourceSetImpl()).createResource(URI.createURI("test:///other.aet"))
+					.getContents().add(otherRootElement);
+			ChangeableViewSource viewSource = mock(ChangeableViewSource.class);
+			when(viewSource.getViewSourceModels()).thenReturn(Set.of(resource));
+			DirectViewElementSelector selector = basicViewType.createSelector(viewSource);
+			assertThat(selector.isSelectable(rootElement), is(true));
+			assertThat(selector.isSelectable(rootElement), is(true));
+			assertThat(selector.isSelectable(otherRootElement), is(false));
+			verify(viewSource, times(1)).getViewSourceModels();
+		}
+
+		@Test
+		@DisplayName("for source models added and removed after checking elements")
+		public void forSourceModelsAddedAndRemovedAfterChecking() {
+			ResourceSet resourceSet = withGlobalFactories(new ResourceSetImpl());
+			Resource resource = resourceSet.createResource(URI.createURI("test:///test.aet"));
+			Root rootElement = aet.Root();
+			resource.getContents().add(rootElement);
+			ChangeableViewSource viewSource = mock(ChangeableViewSource.class);
+			when(viewSource.getViewSourceModels()).thenReturn(resourceSet.getResources());
+			DirectViewElementSelector selector = basicViewType.createSelector(viewSource);
+			assertThat(selector.isSelectable(rootElement), is(true));
+			Resource addedResource = resourceSet.createResource(URI.createURI("test:///added.aet"));
+			Root addedRootElement = aet.Root();
+			addedResource.getContents().add(addedRootElement);
+			assertThat(selector.isSelectable(addedRootElement), is(true));
+			resourceSet.getResources().remove(resource);
+			assertThat(selector.isSelectable(rootElement), is(false));
+		}
 	}
 
 	@Nested
@@ -252,6 +325,46 @@ public class IdentityMappingViewTypeTest {
 			}
 		}
 
+		@Test
+		@DisplayName("for a UML resource with a reference to another resource")
+		public void forUmlResourceWithCrossResourceReference() throws Exception {
+			testResourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put(UMLResource.FILE_EXTENSION,
+					UMLResource.Factory.INSTANCE);
+			Resource modelResource = testResourceSet.createResource(URI.createURI("test://model.uml"));
+			Resource typesResource = testResourceSet.createResource(URI.createURI("test://types.uml"));
+			Model model = UMLFactory.eINSTANCE.createModel();
+			model.setName("model");
+			Model types = UMLFactory.eINSTANCE.createModel();
+			types.setName("types");
+			modelResource.getContents().add(model);
+			typesResource.getContents().add(types);
+			org.eclipse.uml2.uml.Class referencedClass = types.createOwnedClass("Referenced", false);
+			modelResource.setTrackingModification(true);
+			typesResource.setTrackingModification(true);
+			model.createOwnedClass("Referencing", false).createOwnedAttribute("referenced", referencedClass);
+			ChangeableViewSource viewSource = mock(ChangeableViewSource.class);
+			// the referencing resource is copied first
+			when(viewSource.getViewSourceModels()).thenReturn(List.of(modelResource, typesResource));
+			DirectViewElementSelector selector = basicViewType.createSelector(viewSource);
+			selector.setSelected(model, true);
+			selector.setSelected(types, true);
+			try (View view = basicViewType.createView(selector)) {
+				assertThat(view.getRootObjects().size(), is(2));
+				assertThat(view.getRootObjects(), hasItem(equalsDeeply(model)));
+				assertThat(view.getRootObjects(), hasItem(equalsDeeply(types)));
+				Model viewModel = FluentIterable.from(view.getRootObjects(Model.class))
+						.filter((root) -> "model".equals(root.getName())).first().get();
+				Model viewTypes = FluentIterable.from(view.getRootObjects(Model.class))
+						.filter((root) -> "types".equals(root.getName())).first().get();
+				org.eclipse.uml2.uml.Class viewReferencingClass = (org.eclipse.uml2.uml.Class) viewModel
+						.getOwnedType("Referencing");
+				assertThat(viewReferencingClass.getOwnedAttribute("referenced", null).getType(),
+						is(sameInstance(viewTypes.getOwnedType("Referenced"))));
+				assertThat(modelResource.isModified(), is(true));
+				assertThat(typesResource.isModified(), is(false));
+			}
+		}
+
 	}
 
 	@Nested
@@ -339,4 +452,241 @@ public class IdentityMappingViewTypeTest {
 			}
 		}
 	}
+
+	@Nested
+	@DisplayName("update view incrementally")
+	class UpdateViewIncrementally {
+		private IdentityMappingViewType basicViewType;
+		private ResourceSet testResourceSet;
+		private ChangeableViewSource viewSource;
+		private ChangeRecorder changeRecorder;
+
+		@BeforeEach
+		public void initializeViewTypeAndResourceSetAndViewSource() {
+			this.basicViewType = new IdentityMappingViewType("name", true);
+			this.testResourceSet = withGlobalFactories(new ResourceSetImpl());
+			this.viewSource = mock(ChangeableViewSource.class);
+			when(viewSource.getViewSourceModels()).thenReturn(testResourceSet.getResources());
+			this.changeRecorder = new ChangeRecorder(testResourceSet);
+		}
+
+		@AfterEach
+		public void closeChangeRecorder() {
+			changeRecorder.close();
+		}
+
+		private Root createResourceWithSingleRoot(URI uri) {
+			Resource resource = testResourceSet.createResource(uri);
+			Root rootElement = aet.Root();
+			rootElement.setId("testid");
+			resource.getContents().add(rootElement);
+			return rootElement;
+		}
+
+		private List<PropagatedChange> propagateChanges(Runnable changes) {
+			changeRecorder.addToRecording(testResourceSet);
+			changeRecorder.beginRecording();
+			changes.run();
+			changeRecorder.endRecording();
+			return List.of(new PropagatedChange(changeRecorder.getChange(),
+					VitruviusChangeFactory.getInstance().createTransactionalChange(emptyList())));
+		}
+
+		private ModifiableView createViewSelectingAllElements() {
+			DirectViewElementSelector selector = basicViewType.createSelector(viewSource);
+			selector.getSelectableElements().forEach((element) -> selector.setSelected(element, true));
+			return basicViewType.createView(selector);
+		}
+
+		@Test
+		@DisplayName("changing an attribute")
+		public void changingAnAttribute() throws Exception {
+			Root root = createResourceWithSingleRoot(URI.createURI("test://test.aet"));
+			try (ModifiableView view = createViewSelectingAllElements()) {
+				Root viewRoot = view.getRootObjects(Root.class).iterator().next();
+				((BasicView) view).finishedChangePropagation(propagateChanges(() -> root.setSingleValuedEAttribute(42)));
+				view.update();
+				assertThat(view.getRootObjects(Root.class).iterator().next(), is(sameInstance(viewRoot)));
+				assertThat(viewRoot.getSingleValuedEAttribute(), is(42));
+				assertThat(view.isModified(), is(false));
+			}
+		}
+
+		@Test
+		@DisplayName("adding a non-root element")
+		public void addingANonRootElement() throws Exception {
+			Root root = createResourceWithSingleRoot(URI.createURI("test://test.aet"));
+			try (ModifiableView view = createViewSelectingAllElements()) {
+				Root viewRoot = view.getRootObjects(Root.class).iterator().next();
+				((BasicView) view).finishedChangePropagation(propagateChanges(() -> {
+					NonRoot nonRoot = aet.NonRoot();
+					nonRoot.setId("nonRoot");
+					root.setSingleValuedContainmentEReference(nonRoot);
+				}));
+				view.update();
+				assertThat(view.getRootObjects(Root.class).iterator().next(), is(sameInstance(viewRoot)));
+				assertThat(viewRoot.getSingleValuedContainmentEReference(), is(notNullValue()));
+				assertThat(viewRoot.getSingleValuedContainmentEReference().getId(), is("nonRoot"));
+			}
+		}
+
+		@Test
+		@DisplayName("adding a bidirectional reference to an element outside of the view")
+		public void addingBidirectionalReferenceToElementOutsideOfView() throws Exception {
+			testResourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put(UMLResource.FILE_EXTENSION,
+					UMLResource.Factory.INSTANCE);
+			Model model = UMLFactory.eINSTANCE.createModel();
+			testResourceSet.createResource(URI.createURI("test://model.uml")).getContents().add(model);
+			Property property = model.createOwnedClass("Referencing", false).createOwnedAttribute("end", null);
+			Model otherModel = UMLFactory.eINSTANCE.createModel();
+			testResourceSet.createResource(URI.createURI("test://other.uml")).getContents().add(otherModel);
+			Association association = (Association) otherModel.createOwnedType("Association",
+					UMLPackage.Literals.ASSOCIATION);
+			DirectViewElementSelector selector = basicViewType.createSelector(viewSource);
+			selector.setSelected(model, true);
+			try (ModifiableView view = basicViewType.createView(selector)) {
+				Model viewModel = view.getRootObjects(Model.class).iterator().next();
+				Property viewProperty = ((org.eclipse.uml2.uml.Class) viewModel.getOwnedType("Referencing"))
+						.getOwnedAttribute("end", null);
+				((BasicView) view).finishedChangePropagation(
+						propagateChanges(() -> property.setAssociation(association)));
+				view.update();
+				assertThat(view.getRootObjects(Model.class).iterator().next(), is(sameInstance(viewModel)));
+				assertThat(viewProperty.getAssociation(), is(nullValue()));
+				assertThat(association.getMemberEnds(), is(List.of(property)));
+			}
+		}
+
+		@Test
+		@DisplayName("removing a selected root element")
+		public void removingSelectedRoot() throws Exception {
+			Root root = createResourceWithSingleRoot(URI.createURI("test://test.aet"));
+			try (ModifiableView view = createViewSelectingAllElements()) {
+				((BasicView) view).finishedChangePropagation(propagateChanges(() -> EcoreUtil.delete(root)));
+				view.update();
+				assertThat(view.getRootObjects().size(), is(0));
+			}
+		}
+
+		@Test
+		@DisplayName("with too many propagated changes")
+		public void withTooManyPropagatedChanges() throws Exception {
+			Root root = createResourceWithSingleRoot(URI.createURI("test://test.aet"));
+			try (ModifiableView view = createViewSelectingAllElements()) {
+				Root viewRoot = view.getRootObjects(Root.class).iterator().next();
+				((BasicView) view).finishedChangePropagation(propagateChanges(() -> {
+					for (int i = 1; i <= BasicView.MAXIMUM_RECORDED_ECHANGES + 1; i++) {
+						root.setSingleValuedEAttribute(i);
+					}
+				}));
+				assertThat(((BasicView) view).getPropagatedChangesSinceUpdate(), is(nullValue()));
+				view.update();
+				assertThat(view.getRootObjects(Root.class).iterator().next(), is(not(sameInstance(viewRoot))));
+				assertThat(view.getRootObjects(), hasItem(equalsDeeply(root)));
+			}
+		}
+
+		@Test
+		@DisplayName("with unknown propagated changes")
+		public void withUnknownPropagatedChanges() throws Exception {
+			Root root = createResourceWithSingleRoot(URI.createURI("test://test.aet"));
+			try (ModifiableView view = createViewSelectingAllElements()) {
+				Root viewRoot = view.getRootObjects(Root.class).iterator().next();
+				root.setId("changedId");
+				((BasicView) view).finishedChangePropagation();
+				view.update();
+				assertThat(view.getRootObjects(Root.class).iterator().next(), is(not(sameInstance(viewRoot))));
+				assertThat(view.getRootObjects(), hasItem(equalsDeeply(root)));
+			}
+		}
+	}
+
+	@Nested
+	@DisplayName("create copy-on-write view")
+	class CreateCopyOnWriteView {
+		private IdentityMappingViewType basicViewType;
+		private ResourceSet testResourceSet;
+		private ChangeableViewSource viewSource;
+
+		@BeforeEach
+		public void initializeViewTypeAndResourceSetAndViewSource() {
+			this.basicViewType = new IdentityMappingViewType("name", false, true);
+			this.testResourceSet = withGlobalFactories(new ResourceSetImpl());
+			this.viewSource = mock(ChangeableViewSource.class);
+			when(viewSource.getViewSourceModels()).thenReturn(testResourceSet.getResources());
+		}
+
+		private Root createResourceWithSingleRoot(URI uri, String id) {
+			Resource resource = testResourceSet.createResource(uri);
+			Root rootElement = aet.Root();
+			rootElement.setId(id);
+			resource.getContents().add(rootElement);
+			return rootElement;
+		}
+
+		@Test
+		@DisplayName("sharing the selected elements")
+		public void sharingSelectedElements() throws Exception {
+			Root firstRoot = createResourceWithSingleRoot(URI.createURI("test://test.aet"), "firstId");
+			createResourceWithSingleRoot(URI.createURI("test://test2.aet"), "secondId");
+			DirectViewElementSelector selector = basicViewType.createSelector(viewSource);
+			selector.setSelected(firstRoot, true);
+			try (ModifiableView view = basicViewType.createView(selector)) {
+				assertThat(view.getRootObjects().size(), is(1));
+				assertThat(view.getRootObjects().iterator().next(), is(sameInstance(firstRoot)));
+				((CopyOnWriteView) view).startedChangePropagation();
+				firstRoot.setId("changedId");
+				((CopyOnWriteView) view).finishedChangePropagation();
+				assertThat(view.isOutdated(), is(false));
+				assertThat(view.getRootObjects(Root.class).iterator().next().getId(), is("changedId"));
+			}
+		}
+
+		@Test
+		@DisplayName("failing after a shared element was modified outside of change propagation")
+		public void failingAfterModificationOfSharedElement() throws Exception {
+			Root root = createResourceWithSingleRoot(URI.createURI("test://test.aet"), "testid");
+			DirectViewElementSelector selector = basicViewType.createSelector(viewSource);
+			selector.setSelected(root, true);
+			try (ModifiableView view = basicViewType.createView(selector)) {
+				Root sharedRoot = view.getRootObjects(Root.class).iterator().next();
+				sharedRoot.setSingleValuedEAttribute(42);
+				assertThrows(IllegalStateException.class, () -> view.getRootObjects());
+				assertThrows(IllegalStateException.class, () -> view.streamRootObjects());
+				assertThrows(IllegalStateException.class, () -> view.withChangeRecordingTrait());
+			}
+		}
+
+		@Test
+		@DisplayName("copying the selected elements for recording changes")
+		public void copyingSelectedElementsForRecordingChanges() throws Exception {
+			Root root = createResourceWithSingleRoot(URI.createURI("test://test.aet"), "testid");
+			DirectViewElementSelector selector = basicViewType.createSelector(viewSource);
+			selector.setSelected(root, true);
+			try (ModifiableView view = basicViewType.createView(selector)) {
+				CommittableView committableView = view.withChangeRecordingTrait();
+				Root viewRoot = committableView.getRootObjects(Root.class).iterator().next();
+				assertThat(viewRoot, is(not(sameInstance(root))));
+				assertThat(viewRoot, equalsDeeply(root));
+				viewRoot.setId("changedId");
+				assertThat(root.getId(), is("testid"));
+				assertThat(view.getRootObjects(), hasItem(viewRoot));
+			}
+		}
+
+		@Test
+		@DisplayName("copying the selected elements for moving a root")
+		public void copyingSelectedElementsForMovingRoot() throws Exception {
+			Root root = createResourceWithSingleRoot(URI.createURI("test://test.aet"), "testid");
+			DirectViewElementSelector selector = basicViewType.createSelector(viewSource);
+			selector.setSelected(root, true);
+			try (ModifiableView view = basicViewType.createView(selector)) {
+				view.moveRoot(view.getRootObjects().iterator().next(), URI.createURI("test://moved.aet"));
+				assertThat(root.eResource().getURI(), is(URI.createURI("test://test.aet")));
+				Root viewRoot = view.getRootObjects(Root.class).iterator().next();
+				assertThat(viewRoot, is(not(sameInstance(root))));
+				assertThat(viewRoot.eResource().getURI(), is(URI.createURI("test://moved.aet")));
+			}
+		}
+	}
 }
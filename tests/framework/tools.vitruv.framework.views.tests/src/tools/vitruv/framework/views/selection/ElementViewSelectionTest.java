@@ -9,6 +9,7 @@ import static tools.vitruv.testutils.metamodels.AllElementTypesCreators.aet;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.emf.ecore.EObject;
 import org.junit.jupiter.api.BeforeEach;
@@ -276,4 +277,51 @@ public class ElementViewSelectionTest {
 
 	}
 
+	@Nested
+	@DisplayName("with lazily determined selectable elements")
+	class Lazy {
+		Set<EObject> selectableElements;
+		AtomicInteger providerCalls;
+		ModifiableViewSelection selection;
+
+		@BeforeEach
+		public void setupLazySelectionWithTwoElements() {
+			selectableElements = Set.of(aet.Root(), aet.Root());
+			providerCalls = new AtomicInteger();
+			selection = new ElementViewSelection(() -> {
+				providerCalls.incrementAndGet();
+				return selectableElements;
+			}, selectableElements::contains);
+		}
+
+		@Test
+		@DisplayName("does not determine selectable elements on selection")
+		public void selectWithoutDeterminingSelectableElements() {
+			EObject element = selectableElements.iterator().next();
+			selection.setSelected(element, true);
+			assertThat("element must be selected after selection", selection.isSelected(element));
+			assertThat("element not added to selection must not be selectable", !selection.isSelectable(aet.Root()));
+			assertThat(providerCalls.get(), is(0));
+		}
+
+		@Test
+		@DisplayName("provides selectable elements on request")
+		public void provideSelectableElements() {
+			assertThat(selection.getSelectableElements(), is(selectableElements));
+			assertThat(providerCalls.get(), is(1));
+		}
+
+		@Test
+		@DisplayName("copies selection without determining selectable elements")
+		public void copy() {
+			EObject element = selectableElements.iterator().next();
+			selection.setSelected(element, true);
+			ModifiableViewSelection copy = new ElementViewSelection(selection);
+			assertThat("copied selection must contain selected element", copy.isSelected(element));
+			assertThat(providerCalls.get(), is(0));
+			assertThat(copy.getSelectableElements(), is(selectableElements));
+		}
+
+	}
+
 }
@@ -1,12 +1,17 @@
 package tools.vitruv.framework.vsum
 
+import java.nio.file.Files
 import java.nio.file.Path
+import java.util.Arrays
 import java.util.List
 import java.util.Set
 import org.apache.log4j.Logger
 import org.eclipse.emf.common.util.URI
 import org.eclipse.emf.ecore.EObject
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl
 import org.eclipse.emf.ecore.util.EcoreUtil
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.^extension.ExtendWith
@@ -15,6 +20,9 @@ import pcm_mockup.Pcm_mockupFactory
 import pcm_mockup.Repository
 import tools.vitruv.framework.correspondence.Correspondence
 import tools.vitruv.framework.correspondence.CorrespondenceModel
+import tools.vitruv.framework.correspondence.CorrespondenceModelFactory
+import tools.vitruv.framework.correspondence.impl.CorrespondenceImpl
+import tools.vitruv.framework.correspondence.impl.ManualCorrespondenceImpl
 import tools.vitruv.framework.userinteraction.UserInteractionFactory
 import tools.vitruv.framework.views.View
 import tools.vitruv.framework.vsum.internal.InternalVirtualModel
@@ -41,6 +49,8 @@ import static extension tools.vitruv.framework.correspondence.CorrespondenceMode
 class CorrespondenceTest {
 	static final Logger LOGGER = Logger.getLogger(CorrespondenceTest)
 	static final String VSUM_NAME = "VsumProject"
+	// the first bytes of the signature at the beginning of each file written by a BinaryResourceImpl
+	static final byte[] BINARY_RESOURCE_SIGNATURE = #[137 as byte, 101 as byte, 109 as byte, 102 as byte]
 	
 	Path testProjectFolder
 	
@@ -82,11 +92,22 @@ class CorrespondenceTest {
 	}
 
 	private def InternalVirtualModel createVirtualModel(String vsumName) {
+		return createVirtualModelBuilder(vsumName).buildAndInitialize()
+	}
+
+	private def InternalVirtualModel createVirtualModelWithLazyModelLoading(String vsumName) {
+		return createVirtualModelBuilder(vsumName).withLazyModelLoading().buildAndInitialize()
+	}
+
+	private def VirtualModelBuilder createVirtualModelBuilder(String vsumName) {
 		return new VirtualModelBuilder()
 			.withStorageFolder(testProjectFolder.resolve(vsumName))
 			.withUserInteractorForResultProvider(UserInteractionFactory.instance.createPredefinedInteractionResultProvider(null))
 			.withDomains(new UmlMockupDomainProvider().getDomain(), new PcmMockupDomainProvider().getDomain())
-			.buildAndInitialize()
+	}
+
+	private def Path getCorrespondencesFile(String vsumName) {
+		return testProjectFolder.resolve(vsumName).resolve("vsum").resolve("correspondences.correspondence")
 	}
 
 	private def void createMockupModels(URI pcmModelUri, URI umlModelUri, InternalVirtualModel vsum) {
@@ -151,6 +172,147 @@ class CorrespondenceTest {
 		assertRepositoryCorrespondences(repo, correspondenceModel)
 	}
 
+	@Test
+	def void testRemoveCorrespondencesOfRemovedElement() {
+		val InternalVirtualModel vsum = createVirtualModelAndModelInstances()
+		val Repository repo = testLoadObject(vsum, getDefaultPcmInstanceURI(), Repository)
+		val UPackage pkg = testLoadObject(vsum, getDefaultUMLInstanceURI(), UPackage)
+		val CorrespondenceModel correspondenceModel = testCorrespondenceModelCreation(vsum)
+		val repoInterface = repo.interfaces.claimOne
+		correspondenceModel.createAndAddCorrespondence(List.of(repo), List.of(pkg))
+		correspondenceModel.createAndAddCorrespondence(List.of(repoInterface), List.of(pkg.interfaces.claimOne))
+		vsum.flush()
+		changeUmlView(vsum) [
+			EcoreUtil.delete(rootObjects.filter(UPackage).head.interfaces.claimOne)
+		]
+		assertFalse(correspondenceModel.hasCorrespondences(List.of(repoInterface)))
+		assertTrue(correspondenceModel.hasCorrespondences(List.of(repo)))
+	}
+
+	@Test
+	def void testTaggedCorrespondences() {
+		val InternalVirtualModel vsum = createVirtualModelAndModelInstances()
+		val Repository repo = testLoadObject(vsum, getDefaultPcmInstanceURI(), Repository)
+		val UPackage pkg = testLoadObject(vsum, getDefaultUMLInstanceURI(), UPackage)
+		val CorrespondenceModel correspondenceModel = testCorrespondenceModelCreation(vsum)
+		val correspondence = correspondenceModel.createAndAddCorrespondence(List.of(repo), List.of(pkg), "first")
+		assertEquals(correspondence, correspondenceModel.getCorrespondences(List.of(repo), "first").claimOne)
+		assertTrue(correspondenceModel.getCorrespondences(List.of(repo), "second").empty)
+		correspondence.tag = "second"
+		assertTrue(correspondenceModel.getCorrespondences(List.of(repo), "first").empty)
+		assertEquals(correspondence, correspondenceModel.getCorrespondences(List.of(pkg), "second").claimOne)
+		assertEquals(pkg, correspondenceModel.getCorrespondingEObjects(List.of(repo), "second").claimOne.claimOne)
+	}
+
+	@Test
+	def void testTaggedCorrespondencesOfImplementationType() {
+		val correspondenceModel = CorrespondenceModelFactory.createCorrespondenceModel(null)
+		val repo = Pcm_mockupFactory.eINSTANCE.createRepository
+		val pkg = Uml_mockupFactory.eINSTANCE.createUPackage
+		val correspondence = correspondenceModel.createAndAddManualCorrespondence(List.of(repo), List.of(pkg), "tag")
+		assertEquals(Set.of(correspondence),
+			correspondenceModel.getCorrespondences(ManualCorrespondenceImpl, [true], List.of(repo), "tag"))
+		assertEquals(Set.of(correspondence),
+			correspondenceModel.getCorrespondences(CorrespondenceImpl, [true], List.of(pkg), "tag"))
+		assertTrue(
+			correspondenceModel.getCorrespondences(ManualCorrespondenceImpl, [true], List.of(repo), "other").empty)
+	}
+
+	@Test
+	def void testBinaryCorrespondencePersistence() {
+		val InternalVirtualModel vsum = createVirtualModelAndModelInstances()
+		val Repository repo = testLoadObject(vsum, getDefaultPcmInstanceURI(), Repository)
+		val UPackage pkg = testLoadObject(vsum, getDefaultUMLInstanceURI(), UPackage)
+		vsum.correspondenceModel.createAndAddCorrespondence(List.of(repo), List.of(pkg))
+		vsum.flush()
+		vsum.dispose()
+		assertBinaryFile(getCorrespondencesFile(VSUM_NAME))
+		val reloadedVsum = createVirtualModel(VSUM_NAME)
+		val Repository reloadedRepo = testLoadObject(reloadedVsum, getDefaultPcmInstanceURI(), Repository)
+		val UPackage reloadedPkg = testLoadObject(reloadedVsum, getDefaultUMLInstanceURI(), UPackage)
+		assertEquals(reloadedPkg, reloadedVsum.correspondenceModel.getCorrespondingEObjects(reloadedRepo).claimOne)
+		assertEquals(reloadedRepo, reloadedVsum.correspondenceModel.getCorrespondingEObjects(reloadedPkg).claimOne)
+		reloadedVsum.dispose()
+	}
+
+	@Test
+	def void testLoadXmiCorrespondences() {
+		val InternalVirtualModel vsum = createVirtualModelAndModelInstances()
+		val Repository repo = testLoadObject(vsum, getDefaultPcmInstanceURI(), Repository)
+		val UPackage pkg = testLoadObject(vsum, getDefaultUMLInstanceURI(), UPackage)
+		vsum.correspondenceModel.createAndAddCorrespondence(List.of(repo), List.of(pkg))
+		vsum.flush()
+		vsum.dispose()
+		// store the correspondences in XMI, as earlier versions did
+		val correspondencesUri = getCorrespondencesFile(VSUM_NAME).toFile().createFileURI()
+		val resourceSet = new ResourceSetImpl()
+		val binaryResource = new BinaryResourceImpl(correspondencesUri)
+		resourceSet.resources += binaryResource
+		binaryResource.load(null)
+		val xmiResource = new XMIResourceImpl(correspondencesUri)
+		xmiResource.contents += List.copyOf(binaryResource.contents)
+		xmiResource.save(null)
+		assertFalse(isBinaryFile(getCorrespondencesFile(VSUM_NAME)))
+
+		val reloadedVsum = createVirtualModel(VSUM_NAME)
+		val Repository reloadedRepo = testLoadObject(reloadedVsum, getDefaultPcmInstanceURI(), Repository)
+		val UPackage reloadedPkg = testLoadObject(reloadedVsum, getDefaultUMLInstanceURI(), UPackage)
+		assertEquals(reloadedPkg, reloadedVsum.correspondenceModel.getCorrespondingEObjects(reloadedRepo).claimOne)
+		// the correspondences are stored in the binary format on the next save
+		changePcmView(reloadedVsum) [
+			rootObjects.filter(Repository).head.interfaces += Pcm_mockupFactory.eINSTANCE.createPInterface()
+		]
+		reloadedVsum.dispose()
+		assertBinaryFile(getCorrespondencesFile(VSUM_NAME))
+		val migratedVsum = createVirtualModel(VSUM_NAME)
+		val Repository migratedRepo = testLoadObject(migratedVsum, getDefaultPcmInstanceURI(), Repository)
+		val UPackage migratedPkg = testLoadObject(migratedVsum, getDefaultUMLInstanceURI(), UPackage)
+		assertEquals(migratedPkg, migratedVsum.correspondenceModel.getCorrespondingEObjects(migratedRepo).claimOne)
+		migratedVsum.dispose()
+	}
+
+	@Test
+	def void testLazilyResolvedCorrespondencePersistence() {
+		val InternalVirtualModel vsum = createVirtualModelAndModelInstances()
+		val Repository repo = testLoadObject(vsum, getDefaultPcmInstanceURI(), Repository)
+		val UPackage pkg = testLoadObject(vsum, getDefaultUMLInstanceURI(), UPackage)
+		vsum.correspondenceModel.createAndAddCorrespondence(List.of(repo), List.of(pkg))
+		vsum.flush()
+		vsum.dispose()
+
+		// resolve the correspondence through the PCM model, which loads the UML model
+		val lazyVsum = createVirtualModelWithLazyModelLoading(VSUM_NAME)
+		val pcmModel = lazyVsum.getModelInstance(getDefaultPcmInstanceURI())
+		val umlModel = lazyVsum.getModelInstance(getDefaultUMLInstanceURI())
+		val Repository lazyRepo = testLoadObject(lazyVsum, getDefaultPcmInstanceURI(), Repository)
+		assertTrue(pcmModel.loaded)
+		assertFalse(umlModel.loaded)
+		val lazyPkg = lazyVsum.correspondenceModel.getCorrespondingEObjects(lazyRepo).claimOne
+		assertThat(lazyPkg, instanceOf(UPackage))
+		assertTrue(umlModel.loaded)
+		assertEquals(lazyRepo, lazyVsum.correspondenceModel.getCorrespondingEObjects(lazyPkg).claimOne)
+		changePcmView(lazyVsum) [
+			rootObjects.filter(Repository).head.interfaces += Pcm_mockupFactory.eINSTANCE.createPInterface()
+		]
+		lazyVsum.dispose()
+
+		val reloadedVsum = createVirtualModelWithLazyModelLoading(VSUM_NAME)
+		val UPackage reloadedPkg = testLoadObject(reloadedVsum, getDefaultUMLInstanceURI(), UPackage)
+		val reloadedRepo = reloadedVsum.correspondenceModel.getCorrespondingEObjects(reloadedPkg).claimOne
+		assertThat(reloadedRepo, instanceOf(Repository))
+		assertEquals(2, (reloadedRepo as Repository).interfaces.size)
+		reloadedVsum.dispose()
+	}
+
+	def private static boolean isBinaryFile(Path file) {
+		return Arrays.equals(Arrays.copyOf(Files.readAllBytes(file), BINARY_RESOURCE_SIGNATURE.length),
+			BINARY_RESOURCE_SIGNATURE)
+	}
+
+	def private static void assertBinaryFile(Path file) {
+		assertTrue(isBinaryFile(file), '''«file» is not stored in the EMF binary resource format''')
+	}
+
 	def private void assertRepositoryCorrespondences(Repository repo, CorrespondenceModel correspondenceModel) {
 		// get the correspondence of repo
 		correspondenceModel.getCorrespondences(List.of(repo)).claimOne
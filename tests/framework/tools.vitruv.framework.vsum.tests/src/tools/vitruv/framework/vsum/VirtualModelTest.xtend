@@ -1,7 +1,9 @@
 package tools.vitruv.framework.vsum
 
 import allElementTypes.Root
+import java.nio.file.Files
 import java.nio.file.Path
+import java.time.Duration
 import java.util.HashSet
 import org.eclipse.emf.ecore.resource.ResourceSet
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl
@@ -23,8 +25,10 @@ import tools.vitruv.testutils.TestProjectManager
 import static org.hamcrest.CoreMatchers.*
 import static org.hamcrest.MatcherAssert.assertThat
 import static org.junit.jupiter.api.Assertions.assertEquals
+import static org.junit.jupiter.api.Assertions.assertFalse
 import static org.junit.jupiter.api.Assertions.assertNotEquals
 import static org.junit.jupiter.api.Assertions.assertNull
+import static org.junit.jupiter.api.Assertions.assertTrue
 import static tools.vitruv.testutils.matchers.ModelMatchers.containsModelOf
 import static tools.vitruv.testutils.metamodels.AllElementTypesCreators.aet
 
@@ -66,6 +70,34 @@ class VirtualModelTest {
 		assertThat(vsumModel.resource, containsModelOf(monitoredResource))
 	}
 
+	@Test
+	@DisplayName("propagate changes recorded in batches into a virtual model")
+	def void propagateBatchesIntoVirtualModel() {
+		val virtualModel = createAndLoadTestVirtualModel(pathToVirtualModelProjectFolder)
+		val resourceSet = new ResourceSetImpl().withGlobalFactories
+		val changeRecorder = new ChangeRecorder(resourceSet)
+		changeRecorder.addToRecording(resourceSet)
+		changeRecorder.beginRecording([virtualModel.propagateChange(it)], 1)
+		val root = aet.Root => [
+			id = ROOT_ID
+		]
+		val monitoredResource = resourceSet.createResource(createTestModelResourceUri("")) => [
+			contents += root
+		]
+		assertTrue(changeRecorder.flushBatch)
+		// the element is created in one batch and inserted into a containment reference in the next one
+		val nonRoot = aet.NonRoot => [
+			id = NON_ROOT_ID
+		]
+		root.multiValuedNonContainmentEReference += nonRoot
+		changeRecorder.flushBatch
+		root.multiValuedContainmentEReference += nonRoot
+		assertTrue(changeRecorder.flushBatch)
+		changeRecorder.endRecording
+		val vsumModel = virtualModel.getModelInstance(createTestModelResourceUri(""))
+		assertThat(vsumModel.resource, containsModelOf(monitoredResource))
+	}
+
 	@Test
 	@DisplayName("propagate a simple change into a virtual model and preserve consistency")
 	def void propagateIntoVirtualModelWithConsistency() {
@@ -176,6 +208,65 @@ class VirtualModelTest {
 		assertThat(reloadedResource, containsModelOf(monitoredResource))
 	}
 
+	@Test
+	@DisplayName("only save the models that were modified by a propagated change")
+	def void saveOnlyModifiedModels() {
+		val virtualModel = createAndLoadTestVirtualModel(pathToVirtualModelProjectFolder)
+		val resourceSet = new ResourceSetImpl().withGlobalFactories
+		val changeRecorder = new ChangeRecorder(resourceSet)
+		changeRecorder.addToRecording(resourceSet)
+		changeRecorder.beginRecording
+		val root = aet.Root
+		val monitoredResource = resourceSet.createResource(createTestModelResourceUri("")) => [
+			contents += root => [
+				id = 'root'
+			]
+		]
+		resourceSet.createResource(createTestModelResourceUri("Other")) => [
+			contents += aet.Root => [
+				id = 'otherRoot'
+			]
+		]
+		virtualModel.propagateChange(changeRecorder.endRecording)
+		val otherModelPath = Path.of(createTestModelResourceUri("Other").toFileString)
+		Files.delete(otherModelPath)
+		changeRecorder.beginRecording
+		root.singleValuedEAttribute = 1
+		virtualModel.propagateChange(changeRecorder.endRecording)
+		assertFalse(Files.exists(otherModelPath))
+		val reloadedResource = new ResourceSetImpl().withGlobalFactories.getResource(createTestModelResourceUri(""),
+			true)
+		assertThat(reloadedResource, containsModelOf(monitoredResource))
+		try (val projectFiles = Files.list(projectFolder)) {
+			assertThat(projectFiles.map[fileName.toString].filter[endsWith(".tmp")].count, is(0L))
+		}
+	}
+
+	@Test
+	@DisplayName("save models in the background only when flushing the virtual model")
+	def void saveInBackground() {
+		val virtualModel = createAndLoadTestVirtualModelWithBackgroundSaving(pathToVirtualModelProjectFolder,
+			Duration.ofDays(1))
+		val resourceSet = new ResourceSetImpl().withGlobalFactories
+		val changeRecorder = new ChangeRecorder(resourceSet)
+		changeRecorder.addToRecording(resourceSet)
+		changeRecorder.beginRecording
+		val monitoredResource = resourceSet.createResource(createTestModelResourceUri("")) => [
+			contents += aet.Root => [
+				id = 'root'
+			]
+		]
+		virtualModel.propagateChange(changeRecorder.endRecording)
+		val modelPath = Path.of(createTestModelResourceUri("").toFileString)
+		assertFalse(Files.exists(modelPath))
+		virtualModel.flush()
+		assertTrue(Files.exists(modelPath))
+		val reloadedResource = new ResourceSetImpl().withGlobalFactories.getResource(createTestModelResourceUri(""),
+			true)
+		assertThat(reloadedResource, containsModelOf(monitoredResource))
+		virtualModel.dispose()
+	}
+
 	@Test
 	@DisplayName("reload a virtual model to which a simple change was propagated")
 	def void reloadVirtualModel() {
@@ -205,6 +296,72 @@ class VirtualModelTest {
 		assertEquals(1, propagatedChange.size)
 	}
 
+	@Test
+	@DisplayName("reload a virtual model with lazy model loading and load the model when accessing it")
+	def void reloadVirtualModelWithLazyModelLoading() {
+		val virtualModel = createAndLoadTestVirtualModel(pathToVirtualModelProjectFolder)
+		val resourceSet = new ResourceSetImpl().withGlobalFactories
+		val changeRecorder = new ChangeRecorder(resourceSet)
+		changeRecorder.addToRecording(resourceSet)
+		changeRecorder.beginRecording
+		val root = aet.Root
+		val monitoredResource = resourceSet.createResource(createTestModelResourceUri("")) => [
+			contents += root => [
+				id = 'root'
+			]
+		]
+		val recordedChange = changeRecorder.endRecording
+		virtualModel.propagateChange(recordedChange)
+		virtualModel.dispose()
+		val reloadedVirtualModel = createAndLoadTestVirtualModelWithLazyModelLoading(pathToVirtualModelProjectFolder)
+		val reloadedModel = reloadedVirtualModel.getModelInstance(createTestModelResourceUri(""))
+		assertFalse(reloadedModel.loaded)
+		assertThat(reloadedModel.resource, containsModelOf(monitoredResource))
+		assertTrue(reloadedModel.loaded)
+		// Propagate another change to the reloaded virtual model to ensure that the loaded model is recorded
+		changeRecorder.beginRecording
+		root.singleValuedEAttribute = 1
+		val secondRecordedChange = changeRecorder.endRecording
+		val propagatedChange = reloadedVirtualModel.propagateChange(secondRecordedChange)
+		assertEquals(1, propagatedChange.size)
+		reloadedVirtualModel.dispose()
+	}
+
+	@Test
+	@DisplayName("unload the least recently accessed models and load them again when accessing them")
+	def void unloadLeastRecentlyAccessedModels() {
+		val virtualModel = createAndLoadTestVirtualModelWithMaximumLoadedModels(pathToVirtualModelProjectFolder, 1)
+		val resourceSet = new ResourceSetImpl().withGlobalFactories
+		val changeRecorder = new ChangeRecorder(resourceSet)
+		changeRecorder.addToRecording(resourceSet)
+		changeRecorder.beginRecording
+		val root = aet.Root
+		val monitoredResource = resourceSet.createResource(createTestModelResourceUri("")) => [
+			contents += root => [
+				id = 'root'
+			]
+		]
+		resourceSet.createResource(createTestModelResourceUri("Other")) => [
+			contents += aet.Root => [
+				id = 'otherRoot'
+			]
+		]
+		virtualModel.propagateChange(changeRecorder.endRecording)
+		val statistics = virtualModel.modelLoadingStatistics
+		assertEquals(2, statistics.registeredModels)
+		assertEquals(1, statistics.loadedModels)
+		assertEquals(1L, statistics.modelUnloads)
+		assertThat(virtualModel.getModelInstance(createTestModelResourceUri("")).resource,
+			containsModelOf(monitoredResource))
+		// Propagate another change to ensure that a model loaded again is recorded
+		changeRecorder.beginRecording
+		root.singleValuedEAttribute = 1
+		val propagatedChange = virtualModel.propagateChange(changeRecorder.endRecording)
+		assertEquals(1, propagatedChange.size)
+		assertEquals(1, virtualModel.modelLoadingStatistics.loadedModels)
+		virtualModel.dispose()
+	}
+
 	@Test
 	@DisplayName("reload a virtual model with consistency preservation to which a simple change was propagated")
 	def void reloadVirtualModelWithConsistency() {
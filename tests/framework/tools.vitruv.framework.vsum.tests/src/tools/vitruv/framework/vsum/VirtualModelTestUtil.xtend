@@ -3,6 +3,7 @@ package tools.vitruv.framework.vsum
 import allElementTypes.Root
 import edu.kit.ipd.sdq.activextendannotations.Utility
 import java.nio.file.Path
+import java.time.Duration
 import java.util.List
 import org.eclipse.emf.common.util.URI
 import org.eclipse.emf.ecore.resource.ResourceSet
@@ -52,6 +53,42 @@ class VirtualModelTestUtil {
                 UserInteractionFactory.instance.createPredefinedInteractionResultProvider(null))).buildAndInitialize()
     }
 
+    /**
+     * Creates an empty virtual model without a change propagation specification that saves its models in the
+     * background after the given delay.
+     */
+    static def createAndLoadTestVirtualModelWithBackgroundSaving(Path folder, Duration maximumSaveDelay) {
+        return new VirtualModelBuilder().withStorageFolder(folder).withDomain(
+            new AllElementTypesDomainProvider().domain).withUserInteractor(
+            UserInteractionFactory.instance.createUserInteractor(
+                UserInteractionFactory.instance.createPredefinedInteractionResultProvider(null))).withBackgroundSaving(
+            maximumSaveDelay, Integer.MAX_VALUE).buildAndInitialize()
+    }
+
+    /**
+     * Creates an empty virtual model without a change propagation specification that loads its existing
+     * models only when they are accessed.
+     */
+    static def createAndLoadTestVirtualModelWithLazyModelLoading(Path folder) {
+        return new VirtualModelBuilder().withStorageFolder(folder).withDomain(
+            new AllElementTypesDomainProvider().domain).withUserInteractor(
+            UserInteractionFactory.instance.createUserInteractor(
+                UserInteractionFactory.instance.createPredefinedInteractionResultProvider(null))).withLazyModelLoading().
+            buildAndInitialize()
+    }
+
+    /**
+     * Creates an empty virtual model without a change propagation specification that keeps at most the given
+     * number of models loaded.
+     */
+    static def createAndLoadTestVirtualModelWithMaximumLoadedModels(Path folder, int maximumLoadedModels) {
+        return new VirtualModelBuilder().withStorageFolder(folder).withDomain(
+            new AllElementTypesDomainProvider().domain).withUserInteractor(
+            UserInteractionFactory.instance.createUserInteractor(
+                UserInteractionFactory.instance.createPredefinedInteractionResultProvider(null))).
+            withMaximumLoadedModels(maximumLoadedModels).buildAndInitialize()
+    }
+
     /**
      * Creates an empty virtual model with a {@link RedundancyChangePropagationSpecification}.
      */